@@ -0,0 +1,391 @@
+/**
+ * An enhanced fork of the original TiDraggable module by Pedro Enrique,
+ * allows for simple creation of "draggable" views.
+ *
+ * Copyright (C) 2013 Seth Benjamin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * -- Original License --
+ *
+ * Copyright 2012 Pedro Enrique
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ti.draggable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+public class CollisionGrid
+{
+	public static class Body
+	{
+		protected double left;
+		protected double top;
+		protected double width;
+		protected double height;
+		protected int minCellX;
+		protected int minCellY;
+		protected int maxCellX;
+		protected int maxCellY;
+		protected int stamp;
+		protected boolean indexed = false;
+	}
+
+	/**
+	 * Open addressed table of cells keyed by a primitive long so that moving
+	 * a body never boxes a key. Emptied cells keep their list, which is
+	 * reused the next time a body enters them; the table is only cleared
+	 * when the cell size changes.
+	 */
+	protected static class Cells
+	{
+		protected long[] keys = new long[64];
+		protected ArrayList<?>[] values = new ArrayList<?>[64];
+		protected int size = 0;
+
+		@SuppressWarnings("unchecked")
+		public ArrayList<Body> get(long key)
+		{
+			int mask = keys.length - 1;
+
+			for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask)
+			{
+				if (keys[i] == key)
+				{
+					return (ArrayList<Body>) values[i];
+				}
+			}
+
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		public ArrayList<Body> obtain(long key)
+		{
+			int mask = keys.length - 1;
+			int i = hash(key) & mask;
+
+			for (; values[i] != null; i = (i + 1) & mask)
+			{
+				if (keys[i] == key)
+				{
+					return (ArrayList<Body>) values[i];
+				}
+			}
+
+			ArrayList<Body> occupants = new ArrayList<Body>(4);
+
+			keys[i] = key;
+			values[i] = occupants;
+
+			if (++size * 2 > keys.length)
+			{
+				grow();
+			}
+
+			return occupants;
+		}
+
+		public void clear()
+		{
+			Arrays.fill(values, null);
+			size = 0;
+		}
+
+		protected void grow()
+		{
+			long[] oldKeys = keys;
+			ArrayList<?>[] oldValues = values;
+
+			keys = new long[oldKeys.length * 2];
+			values = new ArrayList<?>[oldKeys.length * 2];
+
+			int mask = keys.length - 1;
+
+			for (int j = 0; j < oldKeys.length; j++)
+			{
+				if (oldValues[j] == null)
+				{
+					continue;
+				}
+
+				int i = hash(oldKeys[j]) & mask;
+
+				while (values[i] != null)
+				{
+					i = (i + 1) & mask;
+				}
+
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+
+		protected static int hash(long key)
+		{
+			long h = key * 0x9E3779B97F4A7C15L;
+
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+
+	private static final Map<Object, HashMap<String, CollisionGrid>> grids = new WeakHashMap<Object, HashMap<String, CollisionGrid>>();
+
+	protected double cellSize = 0;
+	protected int stamp = 0;
+	protected Cells cells = new Cells();
+	protected ArrayList<Body> bodies = new ArrayList<Body>();
+	protected ArrayList<Body> candidates = new ArrayList<Body>();
+
+	public static synchronized CollisionGrid get(Object parent, String group)
+	{
+		HashMap<String, CollisionGrid> groups = grids.get(parent);
+
+		if (groups == null)
+		{
+			groups = new HashMap<String, CollisionGrid>();
+			grids.put(parent, groups);
+		}
+
+		CollisionGrid grid = groups.get(group);
+
+		if (grid == null)
+		{
+			grid = new CollisionGrid();
+			groups.put(group, grid);
+		}
+
+		return grid;
+	}
+
+	public void update(Body body, double left, double top, double width, double height)
+	{
+		body.left = left;
+		body.top = top;
+		body.width = width;
+		body.height = height;
+
+		double size = Math.max(width, height);
+
+		if (size > cellSize)
+		{
+			// Cells are kept at least twice the size of the largest body so
+			// that a body never spans more than a handful of cells.
+			cellSize = size * 2;
+
+			if (! body.indexed)
+			{
+				bodies.add(body);
+			}
+
+			rebuild();
+
+			return;
+		}
+
+		if (! body.indexed)
+		{
+			bodies.add(body);
+		}
+		else
+		{
+			int minCellX = cell(left);
+			int minCellY = cell(top);
+			int maxCellX = cell(left + width);
+			int maxCellY = cell(top + height);
+
+			if (minCellX == body.minCellX && minCellY == body.minCellY && maxCellX == body.maxCellX && maxCellY == body.maxCellY)
+			{
+				return;
+			}
+
+			unindex(body);
+		}
+
+		index(body);
+	}
+
+	public void remove(Body body)
+	{
+		if (body.indexed)
+		{
+			unindex(body);
+			bodies.remove(body);
+		}
+	}
+
+	public void resolve(Body body, double[] position)
+	{
+		double fromLeft = body.left;
+		double fromTop = body.top;
+		double toLeft = position[0];
+		double toTop = position[1];
+		double width = body.width;
+		double height = body.height;
+
+		query(Math.min(fromLeft, toLeft), Math.min(fromTop, toTop), Math.max(fromLeft, toLeft) + width, Math.max(fromTop, toTop) + height, body);
+
+		// Resolve one axis at a time so the body slides along the edges of
+		// an obstacle instead of stopping dead. Obstacles that already
+		// overlap the body are ignored so that it can always move free.
+		for (int i = 0, count = candidates.size(); i < count; i++)
+		{
+			Body other = candidates.get(i);
+
+			if (other.top >= fromTop + height || other.top + other.height <= fromTop)
+			{
+				continue;
+			}
+
+			if (toLeft > fromLeft && other.left >= fromLeft + width)
+			{
+				toLeft = Math.min(toLeft, other.left - width);
+			}
+			else if (toLeft < fromLeft && other.left + other.width <= fromLeft)
+			{
+				toLeft = Math.max(toLeft, other.left + other.width);
+			}
+		}
+
+		for (int i = 0, count = candidates.size(); i < count; i++)
+		{
+			Body other = candidates.get(i);
+
+			if (other.left >= toLeft + width || other.left + other.width <= toLeft)
+			{
+				continue;
+			}
+
+			if (toTop > fromTop && other.top >= fromTop + height)
+			{
+				toTop = Math.min(toTop, other.top - height);
+			}
+			else if (toTop < fromTop && other.top + other.height <= fromTop)
+			{
+				toTop = Math.max(toTop, other.top + other.height);
+			}
+		}
+
+		candidates.clear();
+
+		position[0] = toLeft;
+		position[1] = toTop;
+
+		update(body, toLeft, toTop, width, height);
+	}
+
+	protected void query(double left, double top, double right, double bottom, Body self)
+	{
+		int minCellX = cell(left);
+		int minCellY = cell(top);
+		int maxCellX = cell(right);
+		int maxCellY = cell(bottom);
+
+		stamp++;
+
+		for (int x = minCellX; x <= maxCellX; x++)
+		{
+			for (int y = minCellY; y <= maxCellY; y++)
+			{
+				ArrayList<Body> occupants = cells.get(key(x, y));
+
+				if (occupants == null)
+				{
+					continue;
+				}
+
+				for (int i = 0, count = occupants.size(); i < count; i++)
+				{
+					Body other = occupants.get(i);
+
+					if (other != self && other.stamp != stamp)
+					{
+						other.stamp = stamp;
+						candidates.add(other);
+					}
+				}
+			}
+		}
+	}
+
+	protected void index(Body body)
+	{
+		body.minCellX = cell(body.left);
+		body.minCellY = cell(body.top);
+		body.maxCellX = cell(body.left + body.width);
+		body.maxCellY = cell(body.top + body.height);
+		body.indexed = true;
+
+		for (int x = body.minCellX; x <= body.maxCellX; x++)
+		{
+			for (int y = body.minCellY; y <= body.maxCellY; y++)
+			{
+				cells.obtain(key(x, y)).add(body);
+			}
+		}
+	}
+
+	protected void unindex(Body body)
+	{
+		for (int x = body.minCellX; x <= body.maxCellX; x++)
+		{
+			for (int y = body.minCellY; y <= body.maxCellY; y++)
+			{
+				ArrayList<Body> occupants = cells.get(key(x, y));
+
+				if (occupants != null)
+				{
+					occupants.remove(body);
+				}
+			}
+		}
+
+		body.indexed = false;
+	}
+
+	protected void rebuild()
+	{
+		cells.clear();
+
+		for (Body body : bodies)
+		{
+			index(body);
+		}
+	}
+
+	protected int cell(double position)
+	{
+		return cellSize > 0 ? (int) Math.floor(position / cellSize) : 0;
+	}
+
+	protected static long key(int x, int y)
+	{
+		return ((long) x << 32) | (y & 0xffffffffL);
+	}
+}
\ No newline at end of file
@@ -36,6 +36,7 @@
 package ti.draggable;
 
 import java.lang.ref.WeakReference;
+import java.util.HashMap;
 import java.util.List;
 
 import org.appcelerator.kroll.KrollDict;
@@ -45,6 +46,7 @@ import org.appcelerator.kroll.KrollProxyListener;
 import org.appcelerator.kroll.annotations.Kroll;
 import org.appcelerator.titanium.TiApplication;
 import org.appcelerator.titanium.TiDimension;
+import org.appcelerator.titanium.proxy.TiViewProxy;
 import org.appcelerator.titanium.util.TiConvert;
 
 import android.view.View;
@@ -52,7 +54,39 @@ import android.view.View;
 @Kroll.proxy
 public class ConfigProxy extends KrollProxy implements KrollProxyListener
 {
+	protected static final int CHANGED_MAPS = 1;
+	protected static final int CHANGED_COLLISION_GROUP = 2;
+
+	public static final int BOUND_MIN_LEFT = 0;
+	public static final int BOUND_MAX_LEFT = 1;
+	public static final int BOUND_MIN_TOP = 2;
+	public static final int BOUND_MAX_TOP = 3;
+	public static final String BOUND_PARENT = "parent";
+
+	public static final int CONSTRAINT_X_START = 0;
+	public static final int CONSTRAINT_X_END = 1;
+	public static final int CONSTRAINT_Y_START = 2;
+	public static final int CONSTRAINT_Y_END = 3;
+
+	public static final int EVENT_FIELD_LEFT = 1;
+	public static final int EVENT_FIELD_TOP = 2;
+	public static final int EVENT_FIELD_VELOCITY = 4;
+	public static final int EVENT_FIELD_DISTANCE = 8;
+	public static final int EVENT_FIELD_PROGRESS = 16;
+	public static final int EVENT_FIELDS_START = EVENT_FIELD_LEFT | EVENT_FIELD_TOP | EVENT_FIELD_VELOCITY;
+	public static final int EVENT_FIELDS_MOVE = EVENT_FIELD_LEFT | EVENT_FIELD_TOP | EVENT_FIELD_VELOCITY;
+	public static final int EVENT_FIELDS_END = EVENT_FIELD_LEFT | EVENT_FIELD_TOP | EVENT_FIELD_VELOCITY | EVENT_FIELD_DISTANCE;
+
+	protected static final String[] EVENT_FIELD_KEYS = { "left", "top", "velocity", "distance", "progress" };
+	protected static final String[] BOUND_KEYS = { "minLeft", "maxLeft", "minTop", "maxTop" };
+
 	protected WeakReference<DraggableImpl> draggableImpl;
+	protected int pendingChanges = 0;
+	protected String[] boundSpecs = new String[4];
+	protected double[] resolvedBounds = { Double.NaN, Double.NaN, Double.NaN, Double.NaN };
+	protected double[] resolvedConstraints = new double[0];
+	protected boolean boundsDirty = true;
+	protected int eventFields = -1;
 
 	public ConfigProxy(KrollDict config)
 	{
@@ -62,28 +96,187 @@ public class ConfigProxy extends KrollProxy implements KrollProxyListener
 		properties.put("ensureRight", config != null && config.containsKeyAndNotNull("ensureRight") ? TiConvert.toBoolean(config, "ensureRight", false) : false);
 		properties.put("ensureBottom", config != null && config.containsKeyAndNotNull("ensureBottom") ? TiConvert.toBoolean(config, "ensureBottom", false) : false);
 		properties.put("axis", config != null && config.containsKeyAndNotNull("axis") ? TiConvert.toString(config, "axis") : null);
+		properties.put("axisTolerance", config != null && config.containsKeyAndNotNull("axisTolerance") ? TiConvert.toDouble(config, "axisTolerance") : null);
+		properties.put("startOn", config != null && config.containsKeyAndNotNull("startOn") ? TiConvert.toString(config, "startOn") : null);
+		properties.put("longPressDelay", config != null && config.containsKeyAndNotNull("longPressDelay") ? TiConvert.toInt(config.get("longPressDelay")) : null);
+		properties.put("preset", config != null && config.containsKeyAndNotNull("preset") ? TiConvert.toString(config, "preset") : null);
+		properties.put("drawerStates", config != null && config.containsKeyAndNotNull("drawerStates") ? config.getKrollDict("drawerStates") : null);
+		properties.put("velocityThreshold", config != null && config.containsKeyAndNotNull("velocityThreshold") ? TiConvert.toDouble(config, "velocityThreshold") : null);
+		properties.put("distanceThreshold", config != null && config.containsKeyAndNotNull("distanceThreshold") ? TiConvert.toDouble(config, "distanceThreshold") : null);
+		properties.put("settleDuration", config != null && config.containsKeyAndNotNull("settleDuration") ? TiConvert.toInt(config.get("settleDuration")) : null);
+		properties.put("eventFields", config != null && config.containsKeyAndNotNull("eventFields") ? config.get("eventFields") : null);
+		properties.put("collisionGroup", config != null && config.containsKeyAndNotNull("collisionGroup") ? TiConvert.toString(config, "collisionGroup") : null);
 		properties.put("maps", config != null && config.containsKeyAndNotNull("maps") ? (Object[]) config.get("maps") : null);
-		properties.put("minLeft", config != null && config.containsKeyAndNotNull("minLeft") ? TiConvert.toTiDimension(config, "minLeft", TiDimension.TYPE_LEFT) : null);
-		properties.put("maxLeft", config != null && config.containsKeyAndNotNull("minLeft") ? TiConvert.toTiDimension(config, "maxLeft", TiDimension.TYPE_LEFT) : null);
-		properties.put("minTop", config != null && config.containsKeyAndNotNull("minTop") ? TiConvert.toTiDimension(config, "minTop", TiDimension.TYPE_TOP) : null);
-		properties.put("maxTop", config != null && config.containsKeyAndNotNull("maxTop") ? TiConvert.toTiDimension(config, "maxTop", TiDimension.TYPE_TOP) : null);
+		properties.put("minLeft", config != null && config.containsKeyAndNotNull("minLeft") ? toBound(ConfigProxy.BOUND_MIN_LEFT, config.get("minLeft"), TiDimension.TYPE_LEFT) : null);
+		properties.put("maxLeft", config != null && config.containsKeyAndNotNull("maxLeft") ? toBound(ConfigProxy.BOUND_MAX_LEFT, config.get("maxLeft"), TiDimension.TYPE_LEFT) : null);
+		properties.put("minTop", config != null && config.containsKeyAndNotNull("minTop") ? toBound(ConfigProxy.BOUND_MIN_TOP, config.get("minTop"), TiDimension.TYPE_TOP) : null);
+		properties.put("maxTop", config != null && config.containsKeyAndNotNull("maxTop") ? toBound(ConfigProxy.BOUND_MAX_TOP, config.get("maxTop"), TiDimension.TYPE_TOP) : null);
+
+		eventFields = compileEventFields(properties.get("eventFields"));
 
 		setModelListener(this);
 	}
 
-	public Integer getDimensionAsPixels(String key)
+	protected static int compileEventFields(Object value)
+	{
+		if (! (value instanceof Object[]))
+		{
+			return -1;
+		}
+
+		int fields = 0;
+
+		for (Object field : (Object[]) value)
+		{
+			for (int i = 0; i < EVENT_FIELD_KEYS.length; i++)
+			{
+				if (EVENT_FIELD_KEYS[i].equals(field))
+				{
+					fields |= 1 << i;
+				}
+			}
+		}
+
+		return fields;
+	}
+
+	public int getEventFields(int defaults)
+	{
+		return eventFields == -1 ? defaults : eventFields;
+	}
+
+	protected Object toBound(int bound, Object value, int type)
+	{
+		boundSpecs[bound] = value != null ? TiConvert.toString(value) : null;
+
+		if (value == null)
+		{
+			return null;
+		}
+
+		if (BOUND_PARENT.equals(value))
+		{
+			return BOUND_PARENT;
+		}
+
+		return TiConvert.toTiDimension(value, type);
+	}
+
+	public String getBoundSpec(int bound)
+	{
+		return boundSpecs[bound];
+	}
+
+	public double getBound(int bound)
+	{
+		return resolvedBounds[bound];
+	}
+
+	public double getConstraint(int map, int constraint)
+	{
+		int index = map * 4 + constraint;
+
+		return index < resolvedConstraints.length ? resolvedConstraints[index] : Double.NaN;
+	}
+
+	public void invalidateBounds()
+	{
+		boundsDirty = true;
+	}
+
+	public void ensureBoundsResolved(View view)
+	{
+		if (boundsDirty)
+		{
+			resolveBounds(view);
+		}
+	}
+
+	public void resolveBounds(View view)
+	{
+		View parentView = getParentView(view);
+
+		for (int bound = 0; bound < BOUND_KEYS.length; bound++)
+		{
+			Object value = properties.get(BOUND_KEYS[bound]);
+
+			if (value instanceof TiDimension)
+			{
+				resolvedBounds[bound] = ((TiDimension) value).getAsPixels(parentView);
+			}
+			else if (BOUND_PARENT.equals(value))
+			{
+				if (bound == BOUND_MAX_LEFT)
+				{
+					resolvedBounds[bound] = parentView.getWidth() - view.getWidth();
+				}
+				else if (bound == BOUND_MAX_TOP)
+				{
+					resolvedBounds[bound] = parentView.getHeight() - view.getHeight();
+				}
+				else
+				{
+					resolvedBounds[bound] = 0;
+				}
+			}
+			else
+			{
+				resolvedBounds[bound] = Double.NaN;
+			}
+		}
+
+		resolveConstraints(parentView);
+
+		boundsDirty = false;
+	}
+
+	protected void resolveConstraints(View parentView)
+	{
+		Object maps = properties.get("maps");
+		int count = maps instanceof Object[] ? ((Object[]) maps).length : 0;
+
+		if (resolvedConstraints.length != count * 4)
+		{
+			resolvedConstraints = new double[count * 4];
+		}
+
+		for (int i = 0; i < count; i++)
+		{
+			@SuppressWarnings({ "rawtypes", "unchecked" })
+			KrollDict map = new KrollDict((HashMap) ((Object[]) maps)[i]);
+			KrollDict constraints = map.containsKeyAndNotNull("constrain") ? map.getKrollDict("constrain") : null;
+			KrollDict constraintX = constraints != null ? constraints.getKrollDict("x") : null;
+			KrollDict constraintY = constraints != null ? constraints.getKrollDict("y") : null;
+			TiViewProxy mappedProxy = (TiViewProxy) map.get("view");
+			View mappedView = mappedProxy != null && mappedProxy.peekView() != null ? mappedProxy.peekView().getOuterView() : null;
+
+			resolvedConstraints[i * 4 + CONSTRAINT_X_START] = resolveConstraint(constraintX, "start", TiDimension.TYPE_LEFT, parentView, mappedView);
+			resolvedConstraints[i * 4 + CONSTRAINT_X_END] = resolveConstraint(constraintX, "end", TiDimension.TYPE_LEFT, parentView, mappedView);
+			resolvedConstraints[i * 4 + CONSTRAINT_Y_START] = resolveConstraint(constraintY, "start", TiDimension.TYPE_TOP, parentView, mappedView);
+			resolvedConstraints[i * 4 + CONSTRAINT_Y_END] = resolveConstraint(constraintY, "end", TiDimension.TYPE_TOP, parentView, mappedView);
+		}
+	}
+
+	protected static double resolveConstraint(KrollDict constraint, String key, int type, View parentView, View mappedView)
 	{
-		KrollDict props = this.getProperties();
-		
-		if (props.containsKeyAndNotNull(key) && props.get(key) instanceof TiDimension)
+		if (constraint == null || ! constraint.containsKeyAndNotNull(key))
+		{
+			return Double.NaN;
+		}
+
+		// 'parent' follows the same rules as the bounds, the start of the
+		// parent for start and its far edge, minus the mapped view, for end.
+		if (BOUND_PARENT.equals(constraint.get(key)))
 		{
-			TiDimension dimension = (TiDimension) props.get(key);
-			View decorView = this.getDecorView();
+			if (key.equals("start") || mappedView == null)
+			{
+				return 0;
+			}
 
-			return dimension.getAsPixels(decorView);
+			return type == TiDimension.TYPE_LEFT ? parentView.getWidth() - mappedView.getWidth() : parentView.getHeight() - mappedView.getHeight();
 		}
 
-		return null;
+		return TiConvert.toTiDimension(constraint, key, type).getAsPixels(parentView);
 	}
 
 	public void setDraggableImpl(WeakReference<DraggableImpl> draggableView)
@@ -105,7 +298,61 @@ public class ConfigProxy extends KrollProxy implements KrollProxyListener
 		}
 		else if (args.length == 1)
 		{
-			applyProperties(args[0]);
+			ConfigTransaction.begin();
+
+			try
+			{
+				applyProperties(args[0]);
+			}
+			finally
+			{
+				ConfigTransaction.commit();
+			}
+		}
+	}
+
+	protected void scheduleChanges(int changes)
+	{
+		synchronized (this)
+		{
+			pendingChanges |= changes;
+		}
+
+		if (ConfigTransaction.isOpen())
+		{
+			ConfigTransaction.defer(this);
+		}
+		else
+		{
+			applyPendingChanges();
+		}
+	}
+
+	public void applyPendingChanges()
+	{
+		int changes;
+
+		synchronized (this)
+		{
+			changes = pendingChanges;
+			pendingChanges = 0;
+		}
+
+		DraggableImpl impl = getDraggableImpl();
+
+		if (impl == null || changes == 0)
+		{
+			return;
+		}
+
+		if ((changes & CHANGED_MAPS) != 0)
+		{
+			impl.listener.prepareMappedProxies();
+		}
+
+		if ((changes & CHANGED_COLLISION_GROUP) != 0)
+		{
+			impl.listener.prepareCollisionGroup();
 		}
 	}
 
@@ -130,7 +377,10 @@ public class ConfigProxy extends KrollProxy implements KrollProxyListener
 	@Override
 	public void propertiesChanged(List<KrollPropertyChange> changes, KrollProxy proxy)
 	{
-		// Unused
+		for (KrollPropertyChange change : changes)
+		{
+			propertyChanged(change.getName(), change.getOldValue(), change.getNewValue(), proxy);
+		}
 	}
 
 	@Override
@@ -138,20 +388,26 @@ public class ConfigProxy extends KrollProxy implements KrollProxyListener
 	{
 		if (key.equals("maps"))
 		{
-			DraggableImpl impl = getDraggableImpl();
-
-			if (impl != null)
-			{
-				getDraggableImpl().listener.prepareMappedProxies();
-			}
+			invalidateBounds();
+			scheduleChanges(CHANGED_MAPS);
+		}
+		else if (key.equals("eventFields"))
+		{
+			eventFields = compileEventFields(newValue);
+		}
+		else if (key.equals("collisionGroup"))
+		{
+			scheduleChanges(CHANGED_COLLISION_GROUP);
 		}
 		else if (key.equals("minLeft") || key.equals("maxLeft"))
 		{
-			properties.put(key, TiConvert.toTiDimension(TiConvert.toString(newValue), TiDimension.TYPE_LEFT));
+			properties.put(key, toBound(key.equals("minLeft") ? BOUND_MIN_LEFT : BOUND_MAX_LEFT, newValue, TiDimension.TYPE_LEFT));
+			invalidateBounds();
 		}
 		else if (key.equals("minTop") || key.equals("maxTop"))
 		{
-			properties.put(key, TiConvert.toTiDimension(TiConvert.toString(newValue), TiDimension.TYPE_TOP));
+			properties.put(key, toBound(key.equals("minTop") ? BOUND_MIN_TOP : BOUND_MAX_TOP, newValue, TiDimension.TYPE_TOP));
+			invalidateBounds();
 		}
 	}
 	
@@ -159,4 +415,14 @@ public class ConfigProxy extends KrollProxy implements KrollProxyListener
 	{
 		return TiApplication.getAppCurrentActivity().getWindow().getDecorView();
 	}
+
+	public View getParentView(View view)
+	{
+		if (view != null && view.getParent() instanceof View)
+		{
+			return (View) view.getParent();
+		}
+
+		return this.getDecorView();
+	}
 }
\ No newline at end of file
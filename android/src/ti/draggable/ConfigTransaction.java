@@ -0,0 +1,96 @@
+/**
+ * An enhanced fork of the original TiDraggable module by Pedro Enrique,
+ * allows for simple creation of "draggable" views.
+ *
+ * Copyright (C) 2013 Seth Benjamin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * -- Original License --
+ *
+ * Copyright 2012 Pedro Enrique
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ti.draggable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.appcelerator.kroll.common.TiMessenger;
+
+public class ConfigTransaction
+{
+	private static int depth = 0;
+	private static final LinkedHashSet<ConfigProxy> pending = new LinkedHashSet<ConfigProxy>();
+
+	public static synchronized void begin()
+	{
+		depth++;
+	}
+
+	public static synchronized boolean isOpen()
+	{
+		return depth > 0;
+	}
+
+	public static synchronized void defer(ConfigProxy config)
+	{
+		pending.add(config);
+	}
+
+	public static void commit()
+	{
+		// Property changes reach the model listener through the main thread
+		// queue, so the transaction is closed from that same queue. Any change
+		// made inside it is therefore seen while the transaction is still open
+		// and all deferred work is applied in a single pass, coalescing the
+		// resulting layout requests into one frame.
+		TiMessenger.postOnMain(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				List<ConfigProxy> configs;
+
+				synchronized (ConfigTransaction.class)
+				{
+					if (depth == 0 || --depth > 0 || pending.isEmpty())
+					{
+						return;
+					}
+
+					configs = new ArrayList<ConfigProxy>(pending);
+					pending.clear();
+				}
+
+				for (ConfigProxy config : configs)
+				{
+					config.applyPendingChanges();
+				}
+			}
+		});
+	}
+}
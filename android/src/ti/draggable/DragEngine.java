@@ -0,0 +1,336 @@
+/**
+ * An enhanced fork of the original TiDraggable module by Pedro Enrique,
+ * allows for simple creation of "draggable" views.
+ *
+ * Copyright (C) 2013 Seth Benjamin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * -- Original License --
+ *
+ * Copyright 2012 Pedro Enrique
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ti.draggable;
+
+public class DragEngine
+{
+	public static final int ACTION_DOWN = 0;
+	public static final int ACTION_UP = 1;
+	public static final int ACTION_MOVE = 2;
+	public static final int ACTION_CANCEL = 3;
+
+	public static final int AXIS_NONE = 0;
+	public static final int AXIS_X = 1;
+	public static final int AXIS_Y = 2;
+
+	public static final int START_ON_DRAG = 0;
+	public static final int START_ON_LONGPRESS = 1;
+
+	public interface Sink
+	{
+		public void onDragStart(double left, double top);
+
+		public void onDragMove(double left, double top, double deltaLeft, double deltaTop);
+
+		public void onDragEnd(double left, double top, double distanceX, double distanceY, boolean cancelled);
+	}
+
+	protected Sink sink;
+	protected double threshold = 0;
+	protected int axis = AXIS_NONE;
+	protected double axisSlope = Math.tan(Math.toRadians(30));
+	protected int startOn = START_ON_DRAG;
+	protected double minLeft = Double.NaN;
+	protected double maxLeft = Double.NaN;
+	protected double minTop = Double.NaN;
+	protected double maxTop = Double.NaN;
+	protected CollisionGrid collisionGrid;
+	protected CollisionGrid.Body collisionBody;
+	protected double[] collisionPosition = new double[2];
+	protected double downX = 0;
+	protected double downY = 0;
+	protected double offsetLeft = 0;
+	protected double offsetTop = 0;
+	protected double left = 0;
+	protected double top = 0;
+	protected double distanceX = 0;
+	protected double distanceY = 0;
+	protected boolean dragging = false;
+	protected boolean rejected = false;
+
+	public DragEngine(Sink sink)
+	{
+		this.sink = sink;
+	}
+
+	public static int toAxis(String axis)
+	{
+		if ("x".equals(axis))
+		{
+			return AXIS_X;
+		}
+		else if ("y".equals(axis))
+		{
+			return AXIS_Y;
+		}
+
+		return AXIS_NONE;
+	}
+
+	public static int toStartOn(String startOn)
+	{
+		return "longpress".equals(startOn) ? START_ON_LONGPRESS : START_ON_DRAG;
+	}
+
+	public static double parallaxTranslation(double translation, double delta, double parallaxAmount)
+	{
+		return translation + delta / parallaxAmount;
+	}
+
+	public void setThreshold(double threshold)
+	{
+		this.threshold = threshold;
+	}
+
+	public void setAxis(int axis)
+	{
+		this.axis = axis;
+	}
+
+	public void setAxisTolerance(double degrees)
+	{
+		this.axisSlope = Math.tan(Math.toRadians(Math.max(0, Math.min(degrees, 89))));
+	}
+
+	public void setStartOn(int startOn)
+	{
+		this.startOn = startOn;
+	}
+
+	public void setBounds(double minLeft, double maxLeft, double minTop, double maxTop)
+	{
+		this.minLeft = minLeft;
+		this.maxLeft = maxLeft;
+		this.minTop = minTop;
+		this.maxTop = maxTop;
+	}
+
+	public void setCollision(CollisionGrid grid, CollisionGrid.Body body)
+	{
+		this.collisionGrid = grid;
+		this.collisionBody = body;
+	}
+
+	/**
+	 * Single entry point for touch input. The origin is the on-screen position
+	 * of the view when the gesture starts and is only read on ACTION_DOWN.
+	 */
+	public boolean handle(int action, double x, double y, double originLeft, double originTop)
+	{
+		switch (action)
+		{
+			case ACTION_DOWN:
+				this.start(x, y, originLeft, originTop);
+				break;
+			case ACTION_MOVE:
+				if (! this.dragging)
+				{
+					this.determineDrag(x, y);
+				}
+
+				this.move(x, y);
+				break;
+			case ACTION_UP:
+			case ACTION_CANCEL:
+				this.stop(action == ACTION_CANCEL);
+				break;
+		}
+
+		return this.dragging;
+	}
+
+	protected void start(double x, double y, double viewLeft, double viewTop)
+	{
+		this.downX = x;
+		this.downY = y;
+		this.offsetLeft = viewLeft - x;
+		this.offsetTop = viewTop - y;
+		this.left = viewLeft;
+		this.top = viewTop;
+		this.distanceX = this.distanceY = 0;
+		this.dragging = false;
+		this.rejected = false;
+
+		this.sink.onDragStart(this.left, this.top);
+	}
+
+	protected boolean determineDrag(double x, double y)
+	{
+		double xDelta = Math.abs(x - this.downX);
+		double yDelta = Math.abs(y - this.downY);
+
+		if (this.dragging || this.rejected || (xDelta <= this.threshold && yDelta <= this.threshold))
+		{
+			return this.dragging;
+		}
+
+		// Once the slop is crossed the gesture is decided for good. Movement
+		// outside of the configured axis, or any movement before a long
+		// press fires, is left to the parent so that it can scroll.
+		if (this.startOn == START_ON_LONGPRESS)
+		{
+			this.rejected = true;
+		}
+		else if (this.axis == AXIS_X)
+		{
+			this.dragging = yDelta <= xDelta * this.axisSlope;
+			this.rejected = ! this.dragging;
+		}
+		else if (this.axis == AXIS_Y)
+		{
+			this.dragging = xDelta <= yDelta * this.axisSlope;
+			this.rejected = ! this.dragging;
+		}
+		else
+		{
+			this.dragging = true;
+		}
+
+		return this.dragging;
+	}
+
+	public boolean activate()
+	{
+		if (! this.rejected)
+		{
+			this.dragging = true;
+		}
+
+		return this.dragging;
+	}
+
+	protected void move(double x, double y)
+	{
+		if (! this.dragging)
+		{
+			return;
+		}
+
+		double leftEdge = this.axis == AXIS_Y ? this.left : x + this.offsetLeft;
+		double topEdge = this.axis == AXIS_X ? this.top : y + this.offsetTop;
+
+		if (this.axis != AXIS_Y)
+		{
+			leftEdge = clamp(leftEdge, this.minLeft, this.maxLeft);
+		}
+
+		if (this.axis != AXIS_X)
+		{
+			topEdge = clamp(topEdge, this.minTop, this.maxTop);
+		}
+
+		if (this.collisionBody != null)
+		{
+			this.collisionPosition[0] = leftEdge;
+			this.collisionPosition[1] = topEdge;
+
+			this.collisionGrid.resolve(this.collisionBody, this.collisionPosition);
+
+			leftEdge = this.collisionPosition[0];
+			topEdge = this.collisionPosition[1];
+		}
+
+		double deltaLeft = leftEdge - this.left;
+		double deltaTop = topEdge - this.top;
+
+		this.distanceX += Math.abs(deltaLeft);
+		this.distanceY += Math.abs(deltaTop);
+		this.left = leftEdge;
+		this.top = topEdge;
+
+		this.sink.onDragMove(leftEdge, topEdge, deltaLeft, deltaTop);
+	}
+
+	protected void stop(boolean cancelled)
+	{
+		if (this.dragging)
+		{
+			this.dragging = false;
+
+			this.sink.onDragEnd(this.left, this.top, this.distanceX, this.distanceY, cancelled);
+		}
+	}
+
+	protected static double clamp(double value, double min, double max)
+	{
+		if (! Double.isNaN(min) && value <= min)
+		{
+			value = min;
+		}
+
+		if (! Double.isNaN(max) && value >= max)
+		{
+			value = max;
+		}
+
+		return value;
+	}
+
+	public boolean isDragging()
+	{
+		return this.dragging;
+	}
+
+	public boolean isRejected()
+	{
+		return this.rejected;
+	}
+
+	public int getStartOn()
+	{
+		return this.startOn;
+	}
+
+	public double getLeft()
+	{
+		return this.left;
+	}
+
+	public double getTop()
+	{
+		return this.top;
+	}
+
+	public double getDistanceX()
+	{
+		return this.distanceX;
+	}
+
+	public double getDistanceY()
+	{
+		return this.distanceY;
+	}
+}
@@ -36,6 +36,7 @@
 package ti.draggable;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.HashMap;
 
 import org.appcelerator.kroll.KrollDict;
@@ -46,51 +47,118 @@ import org.appcelerator.titanium.util.TiConvert;
 import org.appcelerator.titanium.view.TiCompositeLayout;
 import org.appcelerator.titanium.view.TiUIView;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.view.HapticFeedbackConstants;
 import android.view.MotionEvent;
 import android.view.VelocityTracker;
 import android.view.View;
+import android.view.View.OnAttachStateChangeListener;
+import android.view.View.OnLayoutChangeListener;
 import android.view.View.OnTouchListener;
 import android.view.ViewConfiguration;
+import android.view.ViewParent;
+import android.view.animation.DecelerateInterpolator;
 
-public class DraggableGesture implements OnTouchListener
+public class DraggableGesture implements OnTouchListener, OnLayoutChangeListener, OnAttachStateChangeListener, DragEngine.Sink
 {
 	protected TiUIView draggableView;
 	protected TiViewProxy draggableProxy;
 	protected WeakReference<ConfigProxy> config;
 	protected VelocityTracker velocityTracker;
 	protected ViewConfiguration vc;
-	protected int threshold;
-	protected double lastX = 0;
-	protected double lastY = 0;
-	protected double distanceX = 0;
-	protected double distanceY = 0;
-	protected double startLeft = 0;
-	protected double startTop = 0;
-	protected double lastLeft;
-	protected double lastTop;
-	public boolean isBeingDragged = false;
+	protected DragEngine engine;
+	protected ArrayList<TiViewProxy> groupMembers;
+	protected DrawerPreset drawer;
+	protected boolean drawerHorizontal = false;
+	protected double drawerStartPosition = 0;
+	protected ValueAnimator settleAnimator;
+	protected int settleState = -1;
+	protected int interruptedSettle = -1;
+	protected Runnable longPressRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			if (engine.activate())
+			{
+				View viewToDrag = draggableView.getOuterView();
+
+				viewToDrag.performHapticFeedback(HapticFeedbackConstants.LONG_PRESS);
+				claimGesture();
+			}
+		}
+	};
+	protected CollisionGrid collisionGrid;
+	protected CollisionGrid.Body collisionBody;
+	protected View observedParent;
+	protected OnLayoutChangeListener parentLayoutListener = new OnLayoutChangeListener()
+	{
+		@Override
+		public void onLayoutChange(View view, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom)
+		{
+			// Bounds and map constraints only depend on the size of the
+			// parent, so they are resolved again on rotation or split-screen
+			// resizes only.
+			if (right - left != oldRight - oldLeft || bottom - top != oldBottom - oldTop)
+			{
+				getConfig().resolveBounds(draggableView.getOuterView());
+				prepareMappedProxies();
+			}
+		}
+	};
 
 	public DraggableGesture(TiViewProxy proxy, TiUIView view, WeakReference<ConfigProxy> config)
 	{
 		this.draggableProxy = proxy;
 		this.draggableView = view;
 		this.vc = ViewConfiguration.get(this.draggableView.getOuterView().getContext());
-		this.threshold = vc.getScaledPagingTouchSlop();
 		this.config = config;
+		this.engine = new DragEngine(this);
+		this.engine.setThreshold(vc.getScaledPagingTouchSlop());
 		
 		this.prepareMappedProxies();
 	}
 
-	public void determineDrag(MotionEvent event)
+	public boolean isBeingDragged()
+	{
+		return this.engine.isDragging();
+	}
+
+	protected void claimGesture()
 	{
-		double xDelta = Math.abs(event.getRawX() - this.lastX);
-		double yDelta = Math.abs(event.getRawY() - this.lastY);
+		ViewParent parent = this.draggableView.getOuterView().getParent();
 
-		this.isBeingDragged = xDelta > this.threshold || yDelta > this.threshold;
+		// Keep scrolling ancestors from taking the gesture back once the drag
+		// has been committed.
+		if (parent != null)
+		{
+			parent.requestDisallowInterceptTouchEvent(true);
+		}
+	}
+
+	protected void cancelLongPress()
+	{
+		this.draggableView.getOuterView().removeCallbacks(this.longPressRunnable);
 	}
 
 	@Override
 	public boolean onTouch(View view, MotionEvent event) {
+		boolean traced = DraggableTrace.beginSection(DraggableTrace.SECTION_TOUCH);
+
+		try
+		{
+			return this.handleTouch(event);
+		}
+		finally
+		{
+			DraggableTrace.endSection(traced);
+		}
+	}
+
+	protected boolean handleTouch(MotionEvent event)
+	{
 		ConfigProxy config = this.getConfig();
 		
 		if (TiConvert.toBoolean(config.getProperty("enabled")) == false)
@@ -98,16 +166,29 @@ public class DraggableGesture implements OnTouchListener
 			return false;
 		}
 
-		if (! this.isBeingDragged && event.getAction() == MotionEvent.ACTION_MOVE)
+		boolean moved = false;
+
+		if (! this.isBeingDragged() && event.getAction() == MotionEvent.ACTION_MOVE)
 		{
-			this.determineDrag(event);
+			this.drag(event);
+			moved = true;
 		}
 
-		if (! this.isBeingDragged) {
-			return false;
+		if (! this.isBeingDragged()) {
+			if (event.getAction() == MotionEvent.ACTION_UP || event.getAction() == MotionEvent.ACTION_CANCEL)
+			{
+				this.stopDrag(event);
+			}
+
+			// A long press, or the release that resumes a held settle, can only
+			// be seen if the rest of the gesture is delivered here, even when
+			// no child claimed the touch.
+			return event.getAction() == MotionEvent.ACTION_DOWN && (this.engine.getStartOn() == DragEngine.START_ON_LONGPRESS || this.interruptedSettle != -1);
 		}
 
-		if (this.velocityTracker != null)
+		// Samples are only needed when some event reports velocity or the
+		// drawer has to pick a state from it on release.
+		if (this.velocityTracker != null && (this.drawer != null || (config.getEventFields(ConfigProxy.EVENT_FIELDS_END) & ConfigProxy.EVENT_FIELD_VELOCITY) != 0))
 		{
 			this.velocityTracker.addMovement(event);
 		}
@@ -119,10 +200,17 @@ public class DraggableGesture implements OnTouchListener
 				break;
 			case MotionEvent.ACTION_UP:
 			case MotionEvent.ACTION_CANCEL:
+				DraggableTrace.record(event.getAction() == MotionEvent.ACTION_UP ? DraggableTrace.EVENT_UP : DraggableTrace.EVENT_CANCEL, event.getRawX(), event.getRawY());
 				this.stopDrag(event);
 				break;
 			case MotionEvent.ACTION_MOVE:
-				this.drag(event);
+				DraggableTrace.record(DraggableTrace.EVENT_MOVE, event.getRawX(), event.getRawY());
+
+				if (! moved)
+				{
+					this.drag(event);
+				}
+
 				break;
 		}
 
@@ -130,202 +218,502 @@ public class DraggableGesture implements OnTouchListener
 	}
 	
 	public void drag(MotionEvent event)
+	{
+		boolean wasDragging = this.isBeingDragged();
+
+		if (! wasDragging && TiConvert.toBoolean(this.getConfig().getProperty("enabled")) == false)
+		{
+			return;
+		}
+
+		boolean traced = DraggableTrace.beginSection(DraggableTrace.SECTION_DRAG);
+
+		try
+		{
+			this.engine.handle(DragEngine.ACTION_MOVE, event.getRawX(), event.getRawY(), 0, 0);
+		}
+		finally
+		{
+			DraggableTrace.endSection(traced);
+		}
+
+		if (wasDragging)
+		{
+			return;
+		}
+
+		if (this.isBeingDragged())
+		{
+			this.claimGesture();
+		}
+		else if (this.engine.isRejected())
+		{
+			this.cancelLongPress();
+		}
+	}
+
+	public void startDrag(MotionEvent event)
 	{
 		ConfigProxy config = this.getConfig();
-		KrollDict configProps = config.getProperties();
 		View viewToDrag = this.draggableView.getOuterView();
-		
-		float screenX = event.getRawX();
-		float screenY = event.getRawY();
-		
-		if (this.isBeingDragged)
-		{
-			boolean xAxis = ! configProps.isNull("axis") && configProps.getString("axis").equals("x");
-			boolean yAxis = ! configProps.isNull("axis") && configProps.getString("axis").equals("y");
-			boolean noAxis = ! xAxis && ! yAxis;
 
-			double leftEdge = screenX + startLeft;
-			double topEdge = screenY + startTop;
+		DraggableTrace.record(DraggableTrace.EVENT_DOWN, event.getRawX(), event.getRawY());
+
+		config.ensureBoundsResolved(viewToDrag);
+
+		this.engine.setAxis(DragEngine.toAxis(TiConvert.toString(config.getProperty("axis"))));
+		this.engine.setAxisTolerance(config.getProperties().containsKeyAndNotNull("axisTolerance") ? TiConvert.toDouble(config.getProperty("axisTolerance")) : 30);
+		this.engine.setStartOn(DragEngine.toStartOn(TiConvert.toString(config.getProperty("startOn"))));
+		this.engine.setBounds(
+			config.getBound(ConfigProxy.BOUND_MIN_LEFT),
+			config.getBound(ConfigProxy.BOUND_MAX_LEFT),
+			config.getBound(ConfigProxy.BOUND_MIN_TOP),
+			config.getBound(ConfigProxy.BOUND_MAX_TOP)
+		);
+
+		// A touch holds a running settle, the views stay translated and a drag
+		// resumes from where they are on screen. If no drag starts the settle
+		// is resumed on release.
+		this.cancelSettle();
+
+		double left = viewToDrag.getLeft() + viewToDrag.getTranslationX();
+		double top = viewToDrag.getTop() + viewToDrag.getTranslationY();
 
-			if (xAxis)
+		this.groupMembers = DraggableSelection.getGroup(draggableProxy);
+		this.engine.setCollision(this.groupMembers == null ? this.collisionGrid : null, this.groupMembers == null ? this.collisionBody : null);
+
+		if (this.groupMembers != null)
+		{
+			this.prepareGroupBounds(viewToDrag, left, top);
+		}
+		else if (this.prepareDrawer(viewToDrag))
+		{
+			this.drawerStartPosition = this.drawerHorizontal ? left : top;
+			this.engine.setAxis(this.drawerHorizontal ? DragEngine.AXIS_X : DragEngine.AXIS_Y);
+
+			if (this.drawerHorizontal)
 			{
-				topEdge = viewToDrag.getTop();
+				this.engine.setBounds(
+					Double.isNaN(config.getBound(ConfigProxy.BOUND_MIN_LEFT)) ? this.drawer.getMinPosition() : config.getBound(ConfigProxy.BOUND_MIN_LEFT),
+					Double.isNaN(config.getBound(ConfigProxy.BOUND_MAX_LEFT)) ? this.drawer.getMaxPosition() : config.getBound(ConfigProxy.BOUND_MAX_LEFT),
+					Double.NaN,
+					Double.NaN
+				);
 			}
-			else if (yAxis)
+			else
 			{
-				leftEdge = viewToDrag.getLeft();
+				this.engine.setBounds(
+					Double.NaN,
+					Double.NaN,
+					Double.isNaN(config.getBound(ConfigProxy.BOUND_MIN_TOP)) ? this.drawer.getMinPosition() : config.getBound(ConfigProxy.BOUND_MIN_TOP),
+					Double.isNaN(config.getBound(ConfigProxy.BOUND_MAX_TOP)) ? this.drawer.getMaxPosition() : config.getBound(ConfigProxy.BOUND_MAX_TOP)
+				);
 			}
+		}
 
-			if (noAxis || xAxis)
-			{
-				if (! configProps.isNull("minLeft"))
-				{
-					double _minLeft = config.getDimensionAsPixels("minLeft");
+		if (this.collisionBody != null)
+		{
+			this.collisionGrid.update(this.collisionBody, left, top, viewToDrag.getWidth(), viewToDrag.getHeight());
+		}
 
-					if (leftEdge <= _minLeft)
-					{
-						leftEdge = _minLeft;
-					}
-				}
+		if (this.velocityTracker == null)
+		{
+			this.velocityTracker = VelocityTracker.obtain();
+		}
 
-				if (! configProps.isNull("maxLeft"))
-				{
-					double _maxLeft = config.getDimensionAsPixels("maxLeft");
+		this.engine.handle(DragEngine.ACTION_DOWN, event.getRawX(), event.getRawY(), left, top);
 
-					if (leftEdge >= _maxLeft)
-					{
-						leftEdge = _maxLeft;
-					}
-				}
-			}
+		this.cancelLongPress();
 
-			if (noAxis || yAxis)
-			{
-				if (! configProps.isNull("minTop"))
-				{
-					double _minTop = config.getDimensionAsPixels("minTop");
+		if (this.engine.getStartOn() == DragEngine.START_ON_LONGPRESS && TiConvert.toBoolean(config.getProperty("enabled")))
+		{
+			long delay = config.getProperties().containsKeyAndNotNull("longPressDelay") ? TiConvert.toInt(config.getProperty("longPressDelay")) : ViewConfiguration.getLongPressTimeout();
 
-					if (topEdge <= _minTop)
-					{
-						topEdge = _minTop;
-					}
-				}
+			viewToDrag.postDelayed(this.longPressRunnable, delay);
+		}
+	}
 
-				if (! configProps.isNull("maxTop"))
-				{
-					double _maxTop = config.getDimensionAsPixels("maxTop");
+	public void stopDrag(MotionEvent event)
+	{
+		this.cancelLongPress();
 
-					if (topEdge >= _maxTop)
-					{
-						topEdge = _maxTop;
-					}
-				}
-			}
-			
-			double translationLeft = lastLeft - leftEdge;
-			double translationTop = lastTop - topEdge;
-
-			translateMappedProxies(translationLeft, translationTop);
-			
-			Float ensureRightValue = null;
-			Float ensureBottomValue = null;
-			
-			if (TiConvert.toBoolean(configProps, "ensureRight"))
-			{
-				ensureRightValue = (float) -leftEdge;
-			}
-			
-			if (TiConvert.toBoolean(configProps, "ensureBottom"))
+		if (this.isBeingDragged())
+		{
+			ViewParent parent = this.draggableView.getOuterView().getParent();
+
+			if (parent != null)
 			{
-				ensureBottomValue = (float) -topEdge;
+				parent.requestDisallowInterceptTouchEvent(false);
 			}
+		}
 
-			this.setViewPosition(draggableProxy, viewToDrag, (float) topEdge, (float) leftEdge, ensureBottomValue, ensureRightValue);
+		this.engine.handle(event.getAction() == MotionEvent.ACTION_UP ? DragEngine.ACTION_UP : DragEngine.ACTION_CANCEL, event.getRawX(), event.getRawY(), 0, 0);
 
-			distanceX += Math.abs(lastLeft - leftEdge);
-			distanceY += Math.abs(lastTop - topEdge);
-			lastLeft = leftEdge;
-			lastTop = topEdge;
+		if (this.interruptedSettle != -1 && this.drawer != null)
+		{
+			View viewToDrag = this.draggableView.getOuterView();
 
-			if (draggableProxy.hasListeners("move"))
-			{
-				this.velocityTracker.computeCurrentVelocity(1000);
+			this.settleDrawer(this.interruptedSettle, viewToDrag.getLeft() + viewToDrag.getTranslationX(), viewToDrag.getTop() + viewToDrag.getTranslationY());
+		}
 
-				KrollDict eventDict = new KrollDict();
-				KrollDict velocityDict = new KrollDict();
+		this.interruptedSettle = -1;
+	}
 
-				velocityDict.put("x", this.velocityTracker.getXVelocity());
-				velocityDict.put("y", this.velocityTracker.getYVelocity());
-				eventDict.put("left", viewToDrag.getLeft());
-				eventDict.put("top", viewToDrag.getTop());
-				eventDict.put("velocity", velocityDict);
+	@Override
+	public void onDragStart(double left, double top)
+	{
+		if (draggableProxy.hasListeners("start"))
+		{
+			this.fireEvent("start", this.createEventDict(this.getConfig().getEventFields(ConfigProxy.EVENT_FIELDS_START), left, top, 0, 0));
+		}
+	}
 
-				draggableProxy.fireEvent("move", eventDict);
-			}
+	@Override
+	public void onDragMove(double left, double top, double deltaLeft, double deltaTop)
+	{
+		translateMappedProxies(deltaLeft, deltaTop);
+
+		if (this.groupMembers != null)
+		{
+			this.translateGroup(deltaLeft, deltaTop);
+		}
+		else
+		{
+			this.commitPosition(left, top);
+		}
+
+		if (draggableProxy.hasListeners("move"))
+		{
+			this.fireEvent("move", this.createEventDict(this.getConfig().getEventFields(ConfigProxy.EVENT_FIELDS_MOVE), left, top, this.engine.getDistanceX(), this.engine.getDistanceY()));
 		}
 	}
 
-	public void startDrag(MotionEvent event)
+	@Override
+	public void onDragEnd(double left, double top, double distanceX, double distanceY, boolean cancelled)
 	{
-		View viewToDrag = this.draggableView.getOuterView();
-		
-		this.lastX = event.getRawX();
-		this.lastY = event.getRawY();
+		KrollDict eventDict = null;
 
-		float screenX = event.getRawX();
-		float screenY = event.getRawY();
+		// The drag replaces whatever settle it interrupted.
+		this.interruptedSettle = -1;
 
-		this.startLeft = viewToDrag.getLeft() - screenX;
-		this.startTop = viewToDrag.getTop() - screenY;
-		this.lastLeft = viewToDrag.getLeft();
-		this.lastTop = viewToDrag.getTop();
-		this.distanceX = this.distanceY = 0;
+		// Built before the positions are committed, group members only have
+		// their final position in their translation until then.
+		if (draggableProxy.hasListeners("end") || draggableProxy.hasListeners("cancel"))
+		{
+			eventDict = this.createEventDict(this.getConfig().getEventFields(ConfigProxy.EVENT_FIELDS_END), left, top, distanceX, distanceY);
+		}
 
-		if (this.velocityTracker == null)
+		if (this.groupMembers != null)
 		{
-			this.velocityTracker = VelocityTracker.obtain();
+			this.finalizeGroup();
 		}
+		else if (this.drawer != null)
+		{
+			this.velocityTracker.computeCurrentVelocity(1000);
 
-		if (draggableProxy.hasListeners("start"))
+			double position = this.drawerHorizontal ? left : top;
+			double velocity = this.drawerHorizontal ? this.velocityTracker.getXVelocity() : this.velocityTracker.getYVelocity();
+
+			this.settleDrawer(this.drawer.chooseState(this.drawerStartPosition, position, velocity), left, top);
+		}
+		else
+		{
+			this.finalizeMappedTranslations();
+		}
+
+		if (eventDict != null)
+		{
+			this.fireEvent(cancelled ? "cancel" : "end", eventDict);
+		}
+
+		this.velocityTracker.clear();
+	}
+
+	protected KrollDict createEventDict(int fields, double left, double top, double distanceX, double distanceY)
+	{
+		View viewToDrag = this.draggableView.getOuterView();
+		KrollDict eventDict = new KrollDict();
+
+		if ((fields & ConfigProxy.EVENT_FIELD_LEFT) != 0)
+		{
+			eventDict.put("left", this.groupMembers != null ? (int) left : viewToDrag.getLeft());
+		}
+
+		if ((fields & ConfigProxy.EVENT_FIELD_TOP) != 0)
+		{
+			eventDict.put("top", this.groupMembers != null ? (int) top : viewToDrag.getTop());
+		}
+
+		if ((fields & ConfigProxy.EVENT_FIELD_VELOCITY) != 0)
 		{
 			this.velocityTracker.computeCurrentVelocity(1000);
 
 			KrollDict velocityDict = new KrollDict();
-			
+
 			velocityDict.put("x", this.velocityTracker.getXVelocity());
 			velocityDict.put("y", this.velocityTracker.getYVelocity());
-			
-			KrollDict eventDict = new KrollDict();
-			
-			eventDict.put("left", viewToDrag.getLeft());
-			eventDict.put("top", viewToDrag.getTop());
 			eventDict.put("velocity", velocityDict);
+		}
+
+		if ((fields & ConfigProxy.EVENT_FIELD_DISTANCE) != 0)
+		{
+			KrollDict distanceDict = new KrollDict();
+
+			distanceDict.put("x", distanceX);
+			distanceDict.put("y", distanceY);
+			eventDict.put("distance", distanceDict);
+		}
+
+		if ((fields & ConfigProxy.EVENT_FIELD_PROGRESS) != 0)
+		{
+			ConfigProxy config = this.getConfig();
+			double minLeft = config.getBound(ConfigProxy.BOUND_MIN_LEFT);
+			double maxLeft = config.getBound(ConfigProxy.BOUND_MAX_LEFT);
+			double minTop = config.getBound(ConfigProxy.BOUND_MIN_TOP);
+			double maxTop = config.getBound(ConfigProxy.BOUND_MAX_TOP);
+			KrollDict progressDict = new KrollDict();
 
-			draggableProxy.fireEvent("start", eventDict);
+			if (! Double.isNaN(minLeft) && ! Double.isNaN(maxLeft) && maxLeft != minLeft)
+			{
+				progressDict.put("x", (left - minLeft) / (maxLeft - minLeft));
+			}
+
+			if (! Double.isNaN(minTop) && ! Double.isNaN(maxTop) && maxTop != minTop)
+			{
+				progressDict.put("y", (top - minTop) / (maxTop - minTop));
+			}
+
+			eventDict.put("progress", progressDict);
 		}
+
+		return eventDict;
 	}
 
-	public void stopDrag(MotionEvent event)
+	protected void commitPosition(double left, double top)
 	{
-		if (this.isBeingDragged)
+		KrollDict configProps = this.getConfig().getProperties();
+		Float ensureRightValue = null;
+		Float ensureBottomValue = null;
+		
+		if (TiConvert.toBoolean(configProps, "ensureRight"))
 		{
-			this.isBeingDragged = false;
-			
-			this.finalizeMappedTranslations();
+			ensureRightValue = (float) -left;
+		}
+		
+		if (TiConvert.toBoolean(configProps, "ensureBottom"))
+		{
+			ensureBottomValue = (float) -top;
+		}
 
-			if (draggableProxy.hasListeners("end") || draggableProxy.hasListeners("cancel"))
-			{
-				View viewToDrag = this.draggableView.getOuterView();
+		this.setViewPosition(draggableProxy, this.draggableView.getOuterView(), (float) top, (float) left, ensureBottomValue, ensureRightValue);
+	}
 
-				this.velocityTracker.computeCurrentVelocity(1000);
-				
-				KrollDict distanceDict = new KrollDict();
-				
-				distanceDict.put("x", distanceX);
-				distanceDict.put("y", distanceY);
-				
-				KrollDict velocityDict = new KrollDict();
-				
-				velocityDict.put("x", this.velocityTracker.getXVelocity());
-				velocityDict.put("y", this.velocityTracker.getYVelocity());
-				
-				KrollDict eventDict = new KrollDict();
-				
-				eventDict.put("left", viewToDrag.getLeft());
-				eventDict.put("top", viewToDrag.getTop());
-				eventDict.put("velocity", velocityDict);
-				eventDict.put("distance", distanceDict);
+	protected void prepareGroupBounds(View viewToDrag, double left, double top)
+	{
+		ConfigProxy config = this.getConfig();
+		double width = viewToDrag.getWidth();
+		double height = viewToDrag.getHeight();
+		double groupLeft = left;
+		double groupTop = top;
+		double groupRight = left + width;
+		double groupBottom = top + height;
 
-				draggableProxy.fireEvent(event.getAction() == MotionEvent.ACTION_UP ? "end" : "cancel", eventDict);
-			}
+		for (TiViewProxy member : this.groupMembers)
+		{
+			View memberView = member.peekView().getOuterView();
+			double memberLeft = memberView.getLeft() + memberView.getTranslationX();
+			double memberTop = memberView.getTop() + memberView.getTranslationY();
 
-			this.velocityTracker.clear();
+			groupLeft = Math.min(groupLeft, memberLeft);
+			groupTop = Math.min(groupTop, memberTop);
+			groupRight = Math.max(groupRight, memberLeft + memberView.getWidth());
+			groupBottom = Math.max(groupBottom, memberTop + memberView.getHeight());
 		}
+
+		// The bounds describe the area the dragged view may cover, they are
+		// shifted so that the bounding box of the whole group stays inside.
+		this.engine.setBounds(
+			config.getBound(ConfigProxy.BOUND_MIN_LEFT) + (left - groupLeft),
+			config.getBound(ConfigProxy.BOUND_MAX_LEFT) + width - (groupRight - left),
+			config.getBound(ConfigProxy.BOUND_MIN_TOP) + (top - groupTop),
+			config.getBound(ConfigProxy.BOUND_MAX_TOP) + height - (groupBottom - top)
+		);
 	}
 
-	protected void prepareMappedProxies()
+	protected void translateGroup(double deltaLeft, double deltaTop)
+	{
+		View viewToDrag = this.draggableView.getOuterView();
+
+		viewToDrag.setTranslationX(viewToDrag.getTranslationX() + (float) deltaLeft);
+		viewToDrag.setTranslationY(viewToDrag.getTranslationY() + (float) deltaTop);
+
+		for (int i = 0, count = this.groupMembers.size(); i < count; i++)
+		{
+			View memberView = this.groupMembers.get(i).peekView().getOuterView();
+
+			memberView.setTranslationX(memberView.getTranslationX() + (float) deltaLeft);
+			memberView.setTranslationY(memberView.getTranslationY() + (float) deltaTop);
+		}
+	}
+
+	protected void finalizeGroup()
+	{
+		ViewPositionBatch batch = new ViewPositionBatch();
+		Object[] positions = new Object[this.groupMembers.size() + 1];
+
+		positions[0] = this.addToGroupBatch(batch, draggableProxy);
+
+		for (int i = 0, count = this.groupMembers.size(); i < count; i++)
+		{
+			positions[i + 1] = this.addToGroupBatch(batch, this.groupMembers.get(i));
+		}
+
+		batch.commit();
+
+		this.groupMembers = null;
+		this.finalizeMappedTranslations();
+
+		if (draggableProxy.hasListeners("groupEnd"))
+		{
+			KrollDict eventDict = new KrollDict();
+
+			eventDict.put("views", positions);
+
+			this.fireEvent("groupEnd", eventDict);
+		}
+	}
+
+	protected KrollDict addToGroupBatch(ViewPositionBatch batch, TiViewProxy proxy)
+	{
+		View view = proxy.peekView().getOuterView();
+		KrollDict configProps = proxy.getProperty("draggable") instanceof ConfigProxy ? ((ConfigProxy) proxy.getProperty("draggable")).getProperties() : new KrollDict();
+		float left = view.getLeft() + view.getTranslationX();
+		float top = view.getTop() + view.getTranslationY();
+
+		batch.add(
+			proxy,
+			view,
+			top,
+			left,
+			TiConvert.toBoolean(configProps, "ensureBottom", false) ? -top : null,
+			TiConvert.toBoolean(configProps, "ensureRight", false) ? -left : null
+		);
+
+		KrollDict position = new KrollDict();
+
+		position.put("view", proxy);
+		position.put("left", left);
+		position.put("top", top);
+
+		return position;
+	}
+
+	protected boolean prepareDrawer(View viewToDrag)
+	{
+		ConfigProxy config = this.getConfig();
+		KrollDict configProps = config.getProperties();
+
+		if (! DrawerPreset.NAME.equals(TiConvert.toString(configProps.get("preset"))))
+		{
+			this.drawer = null;
+
+			return false;
+		}
+
+		if (this.drawer == null)
+		{
+			this.drawer = new DrawerPreset();
+		}
+
+		config.ensureBoundsResolved(viewToDrag);
+
+		this.drawerHorizontal = DragEngine.toAxis(TiConvert.toString(configProps.get("axis"))) == DragEngine.AXIS_X;
+
+		View parentView = config.getParentView(viewToDrag);
+		KrollDict states = configProps.containsKeyAndNotNull("drawerStates") ? configProps.getKrollDict("drawerStates") : new KrollDict();
+		int type = this.drawerHorizontal ? TiDimension.TYPE_LEFT : TiDimension.TYPE_TOP;
+		double expanded = config.getBound(this.drawerHorizontal ? ConfigProxy.BOUND_MIN_LEFT : ConfigProxy.BOUND_MIN_TOP);
+		double collapsed = config.getBound(this.drawerHorizontal ? ConfigProxy.BOUND_MAX_LEFT : ConfigProxy.BOUND_MAX_TOP);
+
+		if (states.containsKeyAndNotNull("expanded"))
+		{
+			expanded = TiConvert.toTiDimension(states.get("expanded"), type).getAsPixels(parentView);
+		}
+
+		if (states.containsKeyAndNotNull("collapsed"))
+		{
+			collapsed = TiConvert.toTiDimension(states.get("collapsed"), type).getAsPixels(parentView);
+		}
+
+		double half = states.containsKeyAndNotNull("half") ? TiConvert.toTiDimension(states.get("half"), type).getAsPixels(parentView) : (expanded + collapsed) / 2;
+
+		this.drawer.setPosition(DrawerPreset.STATE_EXPANDED, expanded);
+		this.drawer.setPosition(DrawerPreset.STATE_HALF, half);
+		this.drawer.setPosition(DrawerPreset.STATE_COLLAPSED, collapsed);
+		this.drawer.setThresholds(
+			configProps.containsKeyAndNotNull("velocityThreshold") ? TiConvert.toDouble(configProps.get("velocityThreshold")) : this.vc.getScaledMinimumFlingVelocity(),
+			configProps.containsKeyAndNotNull("distanceThreshold") ? TiConvert.toDouble(configProps.get("distanceThreshold")) : Double.NaN
+		);
+
+		if (this.drawer.getState() == -1)
+		{
+			double position = this.drawerHorizontal ? viewToDrag.getLeft() : viewToDrag.getTop();
+
+			this.drawer.setState(this.drawer.chooseState(position, position, 0));
+		}
+
+		return true;
+	}
+
+	public String getDrawerState()
+	{
+		return this.drawer != null ? DrawerPreset.getStateName(this.drawer.getState()) : null;
+	}
+
+	public void setDrawerState(String name)
+	{
+		View viewToDrag = this.draggableView.getOuterView();
+		int state = DrawerPreset.getStateIndex(name);
+
+		if (state == -1 || this.isBeingDragged() || ! this.prepareDrawer(viewToDrag))
+		{
+			return;
+		}
+
+		this.cancelSettle();
+
+		this.settleDrawer(state, viewToDrag.getLeft() + viewToDrag.getTranslationX(), viewToDrag.getTop() + viewToDrag.getTranslationY());
+	}
+
+	protected void settleDrawer(final int state, double left, double top)
 	{
 		KrollDict configProps = this.getConfig().getProperties();
+		View viewToDrag = this.draggableView.getOuterView();
+		double target = this.drawer.getPosition(state);
+
+		this.interruptedSettle = -1;
+
+		// Without a known position there is nothing to settle on, the view
+		// stays where it was released.
+		if (state == -1 || Double.isNaN(target))
+		{
+			this.finalizeMappedTranslations();
+
+			return;
+		}
+
+		final double targetLeft = this.drawerHorizontal ? target : left;
+		final double targetTop = this.drawerHorizontal ? top : target;
+		final ArrayList<View> views = new ArrayList<View>();
+		final ArrayList<float[]> translations = new ArrayList<float[]>();
+
+		// The settle only animates translations, as the drag does for mapped
+		// views, and is committed to the layout once when it finishes.
+		views.add(viewToDrag);
+		translations.add(new float[] {
+			viewToDrag.getTranslationX(), viewToDrag.getTranslationY(),
+			(float) (targetLeft - left), (float) (targetTop - top)
+		});
 
 		if (configProps.containsKeyAndNotNull("maps"))
 		{
@@ -333,64 +721,235 @@ public class DraggableGesture implements OnTouchListener
 			{
 				@SuppressWarnings({ "rawtypes", "unchecked" })
 				KrollDict map = new KrollDict((HashMap) mapObject);
-				TiViewProxy mappedProxy = (TiViewProxy) map.get("view");
-				View mappedView = mappedProxy.peekView().getOuterView();
+				View mappedView = ((TiViewProxy) map.get("view")).peekView().getOuterView();
+				double parallaxAmount = map.containsKeyAndNotNull("parallaxAmount") ? TiConvert.toDouble(map, "parallaxAmount") : 1;
+
+				views.add(mappedView);
+				translations.add(new float[] {
+					mappedView.getTranslationX(), mappedView.getTranslationY(),
+					(float) ((targetLeft - left) / parallaxAmount), (float) ((targetTop - top) / parallaxAmount)
+				});
+			}
+		}
+
+		ValueAnimator animator = ValueAnimator.ofFloat(0, 1);
+
+		animator.setDuration(configProps.containsKeyAndNotNull("settleDuration") ? TiConvert.toInt(configProps.get("settleDuration")) : 250);
+		animator.setInterpolator(new DecelerateInterpolator());
+		animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener()
+		{
+			@Override
+			public void onAnimationUpdate(ValueAnimator animation)
+			{
+				float fraction = (Float) animation.getAnimatedValue();
+
+				for (int i = 0, count = views.size(); i < count; i++)
+				{
+					float[] translation = translations.get(i);
+
+					views.get(i).setTranslationX(translation[0] + translation[2] * fraction);
+					views.get(i).setTranslationY(translation[1] + translation[3] * fraction);
+				}
+			}
+		});
+		animator.addListener(new AnimatorListenerAdapter()
+		{
+			protected boolean cancelled = false;
 
-				if (map.containsKeyAndNotNull("constrain"))
+			@Override
+			public void onAnimationCancel(Animator animation)
+			{
+				cancelled = true;
+			}
+
+			@Override
+			public void onAnimationEnd(Animator animation)
+			{
+				if (! cancelled)
 				{
-					View parentView = this.getConfig().getDecorView();
-					KrollDict constraints = map.getKrollDict("constrain");
-					KrollDict constraintX = constraints.getKrollDict("x");
-					KrollDict constraintY = constraints.getKrollDict("y");
-					
-					boolean didModifyPosition = false;
-
-					double parallaxAmount = map.containsKeyAndNotNull("parallaxAmount") ? TiConvert.toDouble(map, "parallaxAmount") : 1;
-					double newLeft = 0;
-					double newTop = 0;
-
-					if (constraintX != null && constraintX.containsKeyAndNotNull("start"))
-					{
-						double xStart = TiConvert.toTiDimension(constraintX, "start", TiDimension.TYPE_LEFT).getAsPixels(parentView);
-						
-						if (constraintX.containsKeyAndNotNull("end"))
-						{
-							double xEnd = TiConvert.toTiDimension(constraintX, "end", TiDimension.TYPE_LEFT).getAsPixels(parentView);
-							
-							newLeft = xStart / parallaxAmount - xEnd;
-						}
-						else
-						{
-							newLeft = mappedView.getLeft() / parallaxAmount;
-						}
-						
-						didModifyPosition = true;
-					}
-
-					if (constraintY != null && constraintY.containsKeyAndNotNull("start"))
-					{
-						double yStart = TiConvert.toTiDimension(constraintX, "start", TiDimension.TYPE_TOP).getAsPixels(parentView);
-						
-						if (constraintY.containsKeyAndNotNull("end"))
-						{
-							double yEnd = TiConvert.toTiDimension(constraintX, "end", TiDimension.TYPE_TOP).getAsPixels(parentView);
-							
-							newTop = yStart / parallaxAmount - yEnd;
-						}
-						else
-						{
-							newTop = mappedView.getTop() / parallaxAmount;
-						}
-						
-						didModifyPosition = true;
-					}
-
-					if (didModifyPosition)
-					{
-						this.setViewPosition(mappedProxy, mappedView, (float) newTop, (float) newLeft, null, null);
-					}
+					completeSettle(state, targetLeft, targetTop);
 				}
 			}
+		});
+
+		this.settleAnimator = animator;
+		this.settleState = state;
+
+		animator.start();
+	}
+
+	protected void cancelSettle()
+	{
+		if (this.settleAnimator != null)
+		{
+			ValueAnimator animator = this.settleAnimator;
+
+			this.settleAnimator = null;
+			this.interruptedSettle = this.settleState;
+
+			animator.cancel();
+		}
+	}
+
+	protected void completeSettle(int state, double left, double top)
+	{
+		int previousState = this.drawer.getState();
+
+		this.settleAnimator = null;
+		this.commitPosition(left, top);
+		this.finalizeMappedTranslations();
+
+		if (this.drawer.setState(state) && draggableProxy.hasListeners("stateChange"))
+		{
+			KrollDict eventDict = new KrollDict();
+
+			eventDict.put("state", DrawerPreset.getStateName(state));
+			eventDict.put("previousState", DrawerPreset.getStateName(previousState));
+
+			this.fireEvent("stateChange", eventDict);
+		}
+	}
+
+	protected void prepareCollisionGroup()
+	{
+		View view = this.draggableView.getOuterView();
+		Object parent = view.getParent();
+		String group = TiConvert.toString(this.getConfig().getProperty("collisionGroup"));
+
+		if (group == null || parent == null)
+		{
+			this.leaveCollisionGroup();
+
+			return;
+		}
+
+		CollisionGrid grid = CollisionGrid.get(parent, group);
+
+		if (grid != this.collisionGrid)
+		{
+			this.leaveCollisionGroup();
+
+			this.collisionGrid = grid;
+			this.collisionBody = new CollisionGrid.Body();
+			this.engine.setCollision(this.collisionGrid, this.collisionBody);
+		}
+
+		if (! this.isBeingDragged())
+		{
+			grid.update(this.collisionBody, view.getLeft(), view.getTop(), view.getWidth(), view.getHeight());
+		}
+	}
+
+	protected void leaveCollisionGroup()
+	{
+		if (this.collisionGrid != null)
+		{
+			this.collisionGrid.remove(this.collisionBody);
+		}
+
+		this.collisionGrid = null;
+		this.collisionBody = null;
+		this.engine.setCollision(null, null);
+	}
+
+	@Override
+	public void onLayoutChange(View view, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom)
+	{
+		if (right - left != oldRight - oldLeft || bottom - top != oldBottom - oldTop)
+		{
+			this.getConfig().resolveBounds(view);
+		}
+
+		if (this.drawer == null || this.drawer.getState() == -1)
+		{
+			this.prepareDrawer(view);
+		}
+
+		this.prepareCollisionGroup();
+	}
+
+	@Override
+	public void onViewAttachedToWindow(View view)
+	{
+		if (view.getParent() instanceof View)
+		{
+			this.observedParent = (View) view.getParent();
+			this.observedParent.addOnLayoutChangeListener(this.parentLayoutListener);
+		}
+
+		this.getConfig().invalidateBounds();
+		this.prepareMappedProxies();
+		this.prepareCollisionGroup();
+	}
+
+	@Override
+	public void onViewDetachedFromWindow(View view)
+	{
+		if (this.observedParent != null)
+		{
+			this.observedParent.removeOnLayoutChangeListener(this.parentLayoutListener);
+			this.observedParent = null;
+		}
+
+		this.leaveCollisionGroup();
+	}
+
+	protected void prepareMappedProxies()
+	{
+		ConfigProxy config = this.getConfig();
+		KrollDict configProps = config.getProperties();
+		View view = this.draggableView.getOuterView();
+
+		// Constraints are resolved against the actual parent, until it has
+		// been laid out the attach and parent layout listeners do this.
+		if (! configProps.containsKeyAndNotNull("maps") || ! (view.getParent() instanceof View) || ((View) view.getParent()).getWidth() == 0)
+		{
+			return;
+		}
+
+		config.ensureBoundsResolved(view);
+
+		Object[] maps = (Object[]) configProps.get("maps");
+
+		for (int i = 0; i < maps.length; i++)
+		{
+			@SuppressWarnings({ "rawtypes", "unchecked" })
+			KrollDict map = new KrollDict((HashMap) maps[i]);
+			TiViewProxy mappedProxy = (TiViewProxy) map.get("view");
+
+			if (! map.containsKeyAndNotNull("constrain") || mappedProxy.peekView() == null)
+			{
+				continue;
+			}
+
+			View mappedView = mappedProxy.peekView().getOuterView();
+			double xStart = config.getConstraint(i, ConfigProxy.CONSTRAINT_X_START);
+			double xEnd = config.getConstraint(i, ConfigProxy.CONSTRAINT_X_END);
+			double yStart = config.getConstraint(i, ConfigProxy.CONSTRAINT_Y_START);
+			double yEnd = config.getConstraint(i, ConfigProxy.CONSTRAINT_Y_END);
+
+			boolean didModifyPosition = false;
+
+			double parallaxAmount = map.containsKeyAndNotNull("parallaxAmount") ? TiConvert.toDouble(map, "parallaxAmount") : 1;
+			double newLeft = 0;
+			double newTop = 0;
+
+			if (! Double.isNaN(xStart))
+			{
+				newLeft = ! Double.isNaN(xEnd) ? xStart / parallaxAmount - xEnd : mappedView.getLeft() / parallaxAmount;
+				didModifyPosition = true;
+			}
+
+			if (! Double.isNaN(yStart))
+			{
+				newTop = ! Double.isNaN(yEnd) ? yStart / parallaxAmount - yEnd : mappedView.getTop() / parallaxAmount;
+				didModifyPosition = true;
+			}
+
+			if (didModifyPosition)
+			{
+				this.setViewPosition(mappedProxy, mappedView, (float) newTop, (float) newLeft, null, null);
+			}
 		}
 	}
 	
@@ -398,7 +957,14 @@ public class DraggableGesture implements OnTouchListener
 	{
 		KrollDict configProps = this.getConfig().getProperties();
 
-		if (configProps.containsKeyAndNotNull("maps"))
+		if (! configProps.containsKeyAndNotNull("maps"))
+		{
+			return;
+		}
+
+		boolean traced = DraggableTrace.beginSection(DraggableTrace.SECTION_TRANSLATE_MAPS);
+
+		try
 		{
 			for (Object mapObject : (Object[]) configProps.get("maps"))
 			{
@@ -408,13 +974,14 @@ public class DraggableGesture implements OnTouchListener
 				View mappedView = mappedProxy.peekView().getOuterView();
 				double parallaxAmount = map.containsKeyAndNotNull("parallaxAmount") ? TiConvert.toDouble(map, "parallaxAmount") : 1;
 				
-				translationX = mappedView.getTranslationX() - translationX / parallaxAmount;
-				translationY = mappedView.getTranslationY() - translationY / parallaxAmount;
-
-				mappedView.setTranslationX((float) translationX);
-				mappedView.setTranslationY((float) translationY);
+				mappedView.setTranslationX((float) DragEngine.parallaxTranslation(mappedView.getTranslationX(), translationX, parallaxAmount));
+				mappedView.setTranslationY((float) DragEngine.parallaxTranslation(mappedView.getTranslationY(), translationY, parallaxAmount));
 			}
 		}
+		finally
+		{
+			DraggableTrace.endSection(traced);
+		}
 	}
 	
 	protected void finalizeMappedTranslations()
@@ -423,6 +990,8 @@ public class DraggableGesture implements OnTouchListener
 
 		if (configProps.containsKeyAndNotNull("maps"))
 		{
+			ViewPositionBatch batch = new ViewPositionBatch();
+
 			for (Object mapObject : (Object[]) configProps.get("maps"))
 			{
 				@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -430,43 +999,68 @@ public class DraggableGesture implements OnTouchListener
 				TiViewProxy mappedProxy = (TiViewProxy) map.get("view");
 				View mappedView = mappedProxy.peekView().getOuterView();
 				
-				this.setViewPosition(mappedProxy, mappedView, mappedView.getY(), mappedView.getX(), null, null);
+				batch.add(mappedProxy, mappedView, mappedView.getY(), mappedView.getX(), null, null);
 			}
+
+			batch.commit();
 		}
 	}
 	
 	protected void setViewPosition(KrollProxy proxy, View view, Float top, Float left, Float bottom, Float right)
 	{
-		TiCompositeLayout.LayoutParams layout = (TiCompositeLayout.LayoutParams) view.getLayoutParams();
+		boolean traced = DraggableTrace.beginSection(DraggableTrace.SECTION_SET_POSITION);
 
-		layout.optionLeft = new TiDimension(left, TiDimension.TYPE_LEFT);
-		layout.optionTop = new TiDimension(top, TiDimension.TYPE_TOP);
-		
-		if (right != null)
+		try
 		{
-			layout.optionRight = new TiDimension(right, TiDimension.TYPE_RIGHT);
-		}
+			TiCompositeLayout.LayoutParams layout = (TiCompositeLayout.LayoutParams) view.getLayoutParams();
+
+			layout.optionLeft = new TiDimension(left, TiDimension.TYPE_LEFT);
+			layout.optionTop = new TiDimension(top, TiDimension.TYPE_TOP);
 		
-		if (bottom != null)
-		{
-			layout.optionBottom = new TiDimension(bottom, TiDimension.TYPE_BOTTOM);
-		}
+			if (right != null)
+			{
+				layout.optionRight = new TiDimension(right, TiDimension.TYPE_RIGHT);
+			}
+		
+			if (bottom != null)
+			{
+				layout.optionBottom = new TiDimension(bottom, TiDimension.TYPE_BOTTOM);
+			}
 
-		view.setLayoutParams(layout);
-		view.setTranslationX(0);
-		view.setTranslationY(0);
+			view.setLayoutParams(layout);
+			view.setTranslationX(0);
+			view.setTranslationY(0);
 		
-		proxy.setProperty("left", left);
-		proxy.setProperty("top", top);
+			proxy.setProperty("left", left);
+			proxy.setProperty("top", top);
 		
-		if (right != null)
+			if (right != null)
+			{
+				proxy.setProperty("right", right);
+			}
+		
+			if (bottom != null)
+			{
+				proxy.setProperty("bottom", bottom);
+			}
+		}
+		finally
 		{
-			proxy.setProperty("right", right);
+			DraggableTrace.endSection(traced);
 		}
-		
-		if (bottom != null)
+	}
+
+	protected void fireEvent(String type, KrollDict eventDict)
+	{
+		boolean traced = DraggableTrace.beginSection(DraggableTrace.SECTION_FIRE_EVENT);
+
+		try
+		{
+			draggableProxy.fireEvent(type, eventDict);
+		}
+		finally
 		{
-			proxy.setProperty("bottom", bottom);
+			DraggableTrace.endSection(traced);
 		}
 	}
 	
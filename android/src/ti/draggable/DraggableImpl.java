@@ -62,20 +62,32 @@ public class DraggableImpl extends TiUIView {
 		@Override
 	    public boolean onInterceptTouchEvent(MotionEvent event)
 		{
-			switch (event.getAction())
+			boolean traced = DraggableTrace.beginSection(DraggableTrace.SECTION_INTERCEPT);
+
+			try
+			{
+				DraggableTrace.record(DraggableTrace.EVENT_INTERCEPT, event.getRawX(), event.getRawY());
+
+				switch (event.getAction())
+				{
+					case MotionEvent.ACTION_DOWN:
+						listener.startDrag(event);
+						break;
+					case MotionEvent.ACTION_MOVE:
+						listener.drag(event);
+						break;
+					case MotionEvent.ACTION_UP:
+					case MotionEvent.ACTION_CANCEL:
+						listener.stopDrag(event);
+						break;
+				}
+			}
+			finally
 			{
-				case MotionEvent.ACTION_DOWN:
-					listener.startDrag(event);
-				case MotionEvent.ACTION_MOVE:
-					listener.determineDrag(event);
-					break;
-				case MotionEvent.ACTION_UP:
-				case MotionEvent.ACTION_CANCEL:
-					listener.stopDrag(event);
-					break;
+				DraggableTrace.endSection(traced);
 			}
 
-			return listener.isBeingDragged;
+			return listener.isBeingDragged();
 	    }
 	}
 
@@ -113,6 +125,8 @@ public class DraggableImpl extends TiUIView {
         this.listener = new DraggableGesture((TiViewProxy) proxy, this, weakConfig);
 
 		this.getOuterView().setOnTouchListener(listener);
+		this.getOuterView().addOnLayoutChangeListener(listener);
+		this.getOuterView().addOnAttachStateChangeListener(listener);
 
 		draggableConfig.setDraggableImpl(new WeakReference<DraggableImpl>(this));
 	}
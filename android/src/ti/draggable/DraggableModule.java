@@ -35,15 +35,30 @@
  */
 package ti.draggable;
 
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.appcelerator.kroll.KrollDict;
+import org.appcelerator.kroll.KrollFunction;
 import org.appcelerator.kroll.KrollModule;
 import org.appcelerator.kroll.annotations.Kroll;
 import org.appcelerator.kroll.common.Log;
+import org.appcelerator.kroll.common.TiMessenger;
+import org.appcelerator.titanium.TiApplication;
+import org.appcelerator.titanium.util.TiConvert;
+import org.appcelerator.titanium.view.TiUIView;
+
+import android.view.View;
 
 @Kroll.module(name="Draggable", id="ti.draggable")
 public class DraggableModule extends KrollModule
 {
 	private static final String TAG = "TiDraggable";
-	private static Boolean DEBUGGING = true;
+	private static boolean DEBUGGING = true;
 
 	public DraggableModule()
 	{
@@ -69,4 +84,283 @@ public class DraggableModule extends KrollModule
 	{
 		return DEBUGGING;
 	}
+
+	@Kroll.setProperty
+	public void setTracing(Boolean tracing)
+	{
+		DraggableTrace.setEnabled(tracing);
+	}
+
+	@Kroll.getProperty
+	public Boolean getTracing()
+	{
+		return DraggableTrace.isEnabled();
+	}
+
+	@Kroll.method
+	public Object[] dumpTrace()
+	{
+		return DraggableTrace.dump();
+	}
+
+	@Kroll.method
+	public void batchConfig(KrollFunction callback)
+	{
+		ConfigTransaction.begin();
+
+		try
+		{
+			callback.call(getKrollObject(), new Object[0]);
+		}
+		finally
+		{
+			ConfigTransaction.commit();
+		}
+	}
+
+	@Kroll.method
+	public void setConfig(Object[] args)
+	{
+		if (args.length < 2 || ! (args[0] instanceof Object[]))
+		{
+			return;
+		}
+
+		ConfigTransaction.begin();
+
+		try
+		{
+			for (Object view : (Object[]) args[0])
+			{
+				if (! (view instanceof ViewProxy))
+				{
+					continue;
+				}
+
+				ConfigProxy config = (ConfigProxy) ((ViewProxy) view).getDraggable();
+
+				if (args.length >= 3)
+				{
+					config.setPropertyAndFire((String) args[1], args[2]);
+				}
+				else if (args[1] instanceof HashMap)
+				{
+					config.applyProperties(args[1]);
+				}
+			}
+		}
+		finally
+		{
+			ConfigTransaction.commit();
+		}
+	}
+
+	@Kroll.method
+	public void select(Object[] views)
+	{
+		DraggableSelection.select(views);
+	}
+
+	@Kroll.method
+	public void clearSelection()
+	{
+		DraggableSelection.clear();
+	}
+
+	@Kroll.getProperty @Kroll.method
+	public Object[] getSelection()
+	{
+		return DraggableSelection.toArray();
+	}
+
+	@Kroll.method
+	public boolean saveLayout(String name, Object[] views)
+	{
+		if (! isValidLayoutName(name))
+		{
+			Log.e(TAG, "Invalid layout name " + name);
+
+			return false;
+		}
+
+		LinkedHashMap<String, LayoutStore.Entry> entries = new LinkedHashMap<String, LayoutStore.Entry>();
+
+		for (Object view : views)
+		{
+			if (! (view instanceof ViewProxy) || ((ViewProxy) view).getProperty("id") == null)
+			{
+				continue;
+			}
+
+			ViewProxy proxy = (ViewProxy) view;
+			ConfigProxy config = (ConfigProxy) proxy.getDraggable();
+			KrollDict configProps = config.getProperties();
+			TiUIView nativeView = proxy.peekView();
+			LayoutStore.Entry entry = new LayoutStore.Entry();
+
+			if (nativeView != null)
+			{
+				View outerView = nativeView.getOuterView();
+
+				entry.left = outerView.getLeft() + outerView.getTranslationX();
+				entry.top = outerView.getTop() + outerView.getTranslationY();
+			}
+			else
+			{
+				entry.left = proxy.getProperty("left") instanceof Number ? TiConvert.toFloat(proxy.getProperty("left")) : Float.NaN;
+				entry.top = proxy.getProperty("top") instanceof Number ? TiConvert.toFloat(proxy.getProperty("top")) : Float.NaN;
+			}
+
+			entry.enabled = TiConvert.toBoolean(configProps, "enabled", true);
+			entry.ensureRight = TiConvert.toBoolean(configProps, "ensureRight", false);
+			entry.ensureBottom = TiConvert.toBoolean(configProps, "ensureBottom", false);
+			entry.axis = TiConvert.toString(configProps.get("axis"));
+
+			for (int bound = 0; bound < entry.bounds.length; bound++)
+			{
+				entry.bounds[bound] = config.getBoundSpec(bound);
+			}
+
+			entries.put(TiConvert.toString(proxy.getProperty("id")), entry);
+		}
+
+		try
+		{
+			LayoutStore.write(getLayoutFile(name), entries);
+
+			return true;
+		}
+		catch (IOException e)
+		{
+			Log.e(TAG, "Unable to save layout " + name, e);
+
+			return false;
+		}
+	}
+
+	@Kroll.method
+	public boolean restoreLayout(String name, Object[] views)
+	{
+		if (! isValidLayoutName(name))
+		{
+			Log.e(TAG, "Invalid layout name " + name);
+
+			return false;
+		}
+
+		Map<String, LayoutStore.Entry> entries;
+
+		try
+		{
+			entries = LayoutStore.read(getLayoutFile(name));
+		}
+		catch (FileNotFoundException e)
+		{
+			return false;
+		}
+		catch (IOException e)
+		{
+			Log.e(TAG, "Unable to restore layout " + name, e);
+
+			return false;
+		}
+
+		final ViewPositionBatch batch = new ViewPositionBatch();
+
+		ConfigTransaction.begin();
+
+		try
+		{
+			for (Object view : views)
+			{
+				if (! (view instanceof ViewProxy))
+				{
+					continue;
+				}
+
+				ViewProxy proxy = (ViewProxy) view;
+				LayoutStore.Entry entry = entries.get(TiConvert.toString(proxy.getProperty("id")));
+
+				if (entry == null)
+				{
+					continue;
+				}
+
+				KrollDict options = new KrollDict();
+
+				options.put("enabled", entry.enabled);
+				options.put("ensureRight", entry.ensureRight);
+				options.put("ensureBottom", entry.ensureBottom);
+				options.put("axis", entry.axis);
+
+				for (int bound = 0; bound < entry.bounds.length; bound++)
+				{
+					options.put(ConfigProxy.BOUND_KEYS[bound], entry.bounds[bound]);
+				}
+
+				proxy.getDraggable().applyProperties(options);
+
+				if (Float.isNaN(entry.left) || Float.isNaN(entry.top))
+				{
+					continue;
+				}
+
+				Float right = entry.ensureRight ? -entry.left : null;
+				Float bottom = entry.ensureBottom ? -entry.top : null;
+				TiUIView nativeView = proxy.peekView();
+
+				if (nativeView != null)
+				{
+					batch.add(proxy, nativeView.getOuterView(), entry.top, entry.left, bottom, right);
+				}
+				else
+				{
+					// Views that have not been created yet pick the position up
+					// from their properties on their first layout pass.
+					proxy.setProperty("left", entry.left);
+					proxy.setProperty("top", entry.top);
+
+					if (right != null)
+					{
+						proxy.setProperty("right", right);
+					}
+
+					if (bottom != null)
+					{
+						proxy.setProperty("bottom", bottom);
+					}
+				}
+			}
+		}
+		finally
+		{
+			ConfigTransaction.commit();
+		}
+
+		if (! batch.isEmpty())
+		{
+			TiMessenger.postOnMain(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					batch.commit();
+				}
+			});
+		}
+
+		return true;
+	}
+
+	protected static boolean isValidLayoutName(String name)
+	{
+		// Names are used as file names, they must not reach outside of the
+		// layout directory.
+		return name != null && name.length() > 0 && name.indexOf('/') == -1 && name.indexOf('\\') == -1 && name.indexOf('\0') == -1 && ! name.contains("..");
+	}
+
+	protected File getLayoutFile(String name)
+	{
+		return new File(new File(TiApplication.getInstance().getFilesDir(), "ti.draggable"), name + ".layout");
+	}
 }
\ No newline at end of file
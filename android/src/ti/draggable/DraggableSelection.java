@@ -0,0 +1,91 @@
+/**
+ * An enhanced fork of the original TiDraggable module by Pedro Enrique,
+ * allows for simple creation of "draggable" views.
+ *
+ * Copyright (C) 2013 Seth Benjamin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * -- Original License --
+ *
+ * Copyright 2012 Pedro Enrique
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ti.draggable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.appcelerator.titanium.proxy.TiViewProxy;
+
+public class DraggableSelection
+{
+	private static final Set<TiViewProxy> selection = Collections.newSetFromMap(new WeakHashMap<TiViewProxy, Boolean>());
+
+	public static synchronized void select(Object[] views)
+	{
+		selection.clear();
+
+		for (Object view : views)
+		{
+			if (view instanceof ViewProxy)
+			{
+				selection.add((TiViewProxy) view);
+			}
+		}
+	}
+
+	public static synchronized void clear()
+	{
+		selection.clear();
+	}
+
+	public static synchronized Object[] toArray()
+	{
+		return selection.toArray();
+	}
+
+	public static synchronized ArrayList<TiViewProxy> getGroup(TiViewProxy proxy)
+	{
+		if (! selection.contains(proxy))
+		{
+			return null;
+		}
+
+		ArrayList<TiViewProxy> members = new ArrayList<TiViewProxy>(selection.size());
+
+		for (TiViewProxy member : selection)
+		{
+			if (member != proxy && member.peekView() != null)
+			{
+				members.add(member);
+			}
+		}
+
+		return members.isEmpty() ? null : members;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,189 @@
+/**
+ * An enhanced fork of the original TiDraggable module by Pedro Enrique,
+ * allows for simple creation of "draggable" views.
+ *
+ * Copyright (C) 2013 Seth Benjamin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * -- Original License --
+ *
+ * Copyright 2012 Pedro Enrique
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ti.draggable;
+
+import java.lang.reflect.Method;
+
+import org.appcelerator.kroll.KrollDict;
+
+import android.os.Build;
+import android.os.SystemClock;
+
+public class DraggableTrace
+{
+	public static final byte EVENT_INTERCEPT = 0;
+	public static final byte EVENT_DOWN = 1;
+	public static final byte EVENT_MOVE = 2;
+	public static final byte EVENT_UP = 3;
+	public static final byte EVENT_CANCEL = 4;
+
+	public static final String SECTION_INTERCEPT = "TiDraggable.onInterceptTouchEvent";
+	public static final String SECTION_TOUCH = "TiDraggable.onTouch";
+	public static final String SECTION_DRAG = "TiDraggable.drag";
+	public static final String SECTION_TRANSLATE_MAPS = "TiDraggable.translateMappedProxies";
+	public static final String SECTION_SET_POSITION = "TiDraggable.setViewPosition";
+	public static final String SECTION_FIRE_EVENT = "TiDraggable.fireEvent";
+
+	private static final String[] EVENT_NAMES = { "intercept", "down", "move", "up", "cancel" };
+	private static final int CAPACITY = 2048;
+
+	private static volatile boolean enabled = false;
+	private static Method beginSection;
+	private static Method endSection;
+	private static long[] times;
+	private static byte[] events;
+	private static float[] xs;
+	private static float[] ys;
+	private static int head = 0;
+	private static int count = 0;
+
+	static
+	{
+		// android.os.Trace is only available from API 18, it is looked up
+		// once so older devices simply record into the buffer.
+		if (Build.VERSION.SDK_INT >= 18)
+		{
+			try
+			{
+				Class<?> trace = Class.forName("android.os.Trace");
+
+				beginSection = trace.getMethod("beginSection", String.class);
+				endSection = trace.getMethod("endSection");
+			}
+			catch (Exception e)
+			{
+				beginSection = endSection = null;
+			}
+		}
+	}
+
+	public static boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	public static synchronized void setEnabled(boolean enable)
+	{
+		if (enable && times == null)
+		{
+			times = new long[CAPACITY];
+			events = new byte[CAPACITY];
+			xs = new float[CAPACITY];
+			ys = new float[CAPACITY];
+		}
+
+		enabled = enable;
+	}
+
+	/**
+	 * Returns whether a section was actually opened, the result must be passed
+	 * to endSection so that toggling tracing mid-section never unbalances the
+	 * system trace.
+	 */
+	public static boolean beginSection(String name)
+	{
+		if (enabled && beginSection != null && endSection != null)
+		{
+			try
+			{
+				beginSection.invoke(null, name);
+
+				return true;
+			}
+			catch (Exception e)
+			{
+				beginSection = null;
+			}
+		}
+
+		return false;
+	}
+
+	public static void endSection(boolean began)
+	{
+		if (began && endSection != null)
+		{
+			try
+			{
+				endSection.invoke(null);
+			}
+			catch (Exception e)
+			{
+				endSection = null;
+			}
+		}
+	}
+
+	public static void record(byte event, float x, float y)
+	{
+		if (enabled)
+		{
+			synchronized (DraggableTrace.class)
+			{
+				times[head] = SystemClock.uptimeMillis();
+				events[head] = event;
+				xs[head] = x;
+				ys[head] = y;
+
+				head = (head + 1) % CAPACITY;
+				count = Math.min(count + 1, CAPACITY);
+			}
+		}
+	}
+
+	public static synchronized Object[] dump()
+	{
+		Object[] entries = new Object[count];
+		int start = (head - count + CAPACITY) % CAPACITY;
+
+		for (int i = 0; i < count; i++)
+		{
+			int index = (start + i) % CAPACITY;
+			KrollDict entry = new KrollDict();
+
+			entry.put("time", times[index]);
+			entry.put("event", EVENT_NAMES[events[index]]);
+			entry.put("x", xs[index]);
+			entry.put("y", ys[index]);
+
+			entries[i] = entry;
+		}
+
+		head = count = 0;
+
+		return entries;
+	}
+}
\ No newline at end of file
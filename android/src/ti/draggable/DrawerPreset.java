@@ -0,0 +1,172 @@
+/**
+ * An enhanced fork of the original TiDraggable module by Pedro Enrique,
+ * allows for simple creation of "draggable" views.
+ *
+ * Copyright (C) 2013 Seth Benjamin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * -- Original License --
+ *
+ * Copyright 2012 Pedro Enrique
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ti.draggable;
+
+public class DrawerPreset
+{
+	public static final String NAME = "drawer";
+
+	public static final int STATE_COLLAPSED = 0;
+	public static final int STATE_HALF = 1;
+	public static final int STATE_EXPANDED = 2;
+
+	protected static final String[] STATE_NAMES = { "collapsed", "half", "expanded" };
+
+	protected double[] positions = { Double.NaN, Double.NaN, Double.NaN };
+	protected double velocityThreshold = 0;
+	protected double distanceThreshold = Double.NaN;
+	protected int state = -1;
+
+	public static String getStateName(int state)
+	{
+		return state >= 0 && state < STATE_NAMES.length ? STATE_NAMES[state] : null;
+	}
+
+	public static int getStateIndex(String name)
+	{
+		for (int i = 0; i < STATE_NAMES.length; i++)
+		{
+			if (STATE_NAMES[i].equals(name))
+			{
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	public void setPosition(int state, double position)
+	{
+		positions[state] = position;
+	}
+
+	public double getPosition(int state)
+	{
+		return state >= 0 && state < positions.length ? positions[state] : Double.NaN;
+	}
+
+	public double getMinPosition()
+	{
+		double min = Double.NaN;
+
+		for (double position : positions)
+		{
+			if (! Double.isNaN(position) && (Double.isNaN(min) || position < min))
+			{
+				min = position;
+			}
+		}
+
+		return min;
+	}
+
+	public double getMaxPosition()
+	{
+		double max = Double.NaN;
+
+		for (double position : positions)
+		{
+			if (! Double.isNaN(position) && (Double.isNaN(max) || position > max))
+			{
+				max = position;
+			}
+		}
+
+		return max;
+	}
+
+	public void setThresholds(double velocityThreshold, double distanceThreshold)
+	{
+		this.velocityThreshold = velocityThreshold;
+		this.distanceThreshold = distanceThreshold;
+	}
+
+	public int getState()
+	{
+		return state;
+	}
+
+	public boolean setState(int state)
+	{
+		boolean changed = this.state != state;
+
+		this.state = state;
+
+		return changed;
+	}
+
+	public int chooseState(double startPosition, double position, double velocity)
+	{
+		double direction = 0;
+
+		// A fling always moves on to the next state in its direction, a slow
+		// release only does so once it has travelled the distance threshold.
+		if (Math.abs(velocity) >= velocityThreshold && velocity != 0)
+		{
+			direction = Math.signum(velocity);
+		}
+		else if (! Double.isNaN(distanceThreshold) && Math.abs(position - startPosition) >= distanceThreshold)
+		{
+			direction = Math.signum(position - startPosition);
+		}
+
+		int nearest = -1;
+		int next = -1;
+
+		for (int i = 0; i < positions.length; i++)
+		{
+			if (Double.isNaN(positions[i]))
+			{
+				continue;
+			}
+
+			double offset = positions[i] - position;
+
+			if (nearest == -1 || Math.abs(offset) < Math.abs(positions[nearest] - position))
+			{
+				nearest = i;
+			}
+
+			if (direction != 0 && Math.signum(offset) == direction && (next == -1 || Math.abs(offset) < Math.abs(positions[next] - position)))
+			{
+				next = i;
+			}
+		}
+
+		// -1 when no position is known, there is no state to settle on.
+		return next != -1 ? next : nearest;
+	}
+}
\ No newline at end of file
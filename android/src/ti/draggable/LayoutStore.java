@@ -0,0 +1,215 @@
+/**
+ * An enhanced fork of the original TiDraggable module by Pedro Enrique,
+ * allows for simple creation of "draggable" views.
+ *
+ * Copyright (C) 2013 Seth Benjamin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * -- Original License --
+ *
+ * Copyright 2012 Pedro Enrique
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ti.draggable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LayoutStore
+{
+	protected static final int MAGIC = 0x5444524C;
+	protected static final int VERSION = 1;
+
+	protected static final int FLAG_ENABLED = 1;
+	protected static final int FLAG_ENSURE_RIGHT = 2;
+	protected static final int FLAG_ENSURE_BOTTOM = 4;
+
+	public static class Entry
+	{
+		public float left;
+		public float top;
+		public boolean enabled = true;
+		public boolean ensureRight = false;
+		public boolean ensureBottom = false;
+		public String axis;
+		public String[] bounds = new String[4];
+	}
+
+	public static void write(File file, Map<String, Entry> entries) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + entries.size() * 48);
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeInt(entries.size());
+
+		for (Map.Entry<String, Entry> item : entries.entrySet())
+		{
+			Entry entry = item.getValue();
+
+			writeString(out, item.getKey());
+			out.writeFloat(entry.left);
+			out.writeFloat(entry.top);
+			out.writeByte((entry.enabled ? FLAG_ENABLED : 0) | (entry.ensureRight ? FLAG_ENSURE_RIGHT : 0) | (entry.ensureBottom ? FLAG_ENSURE_BOTTOM : 0));
+			writeString(out, entry.axis);
+
+			for (String bound : entry.bounds)
+			{
+				writeString(out, bound);
+			}
+		}
+
+		out.flush();
+
+		// Written to a sibling file first so an interrupted save never leaves
+		// a truncated layout behind.
+		File parent = file.getParentFile();
+		File temp = new File(parent, file.getName() + ".tmp");
+
+		if (parent != null && ! parent.exists())
+		{
+			parent.mkdirs();
+		}
+
+		FileOutputStream stream = new FileOutputStream(temp);
+
+		try
+		{
+			FileChannel channel = stream.getChannel();
+			ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+
+			while (buffer.hasRemaining())
+			{
+				channel.write(buffer);
+			}
+
+			stream.getFD().sync();
+		}
+		finally
+		{
+			stream.close();
+		}
+
+		if (! temp.renameTo(file))
+		{
+			file.delete();
+
+			if (! temp.renameTo(file))
+			{
+				throw new IOException("Unable to write layout to " + file);
+			}
+		}
+	}
+
+	public static Map<String, Entry> read(File file) throws IOException
+	{
+		LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>();
+
+		// A missing file throws FileNotFoundException, so callers can tell
+		// it apart from an unreadable one.
+		RandomAccessFile stream = new RandomAccessFile(file, "r");
+
+		try
+		{
+			FileChannel channel = stream.getChannel();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (buffer.remaining() < 10 || buffer.getInt() != MAGIC || buffer.getShort() != VERSION)
+			{
+				throw new IOException("Unsupported layout file " + file);
+			}
+
+			int count = buffer.getInt();
+
+			for (int i = 0; i < count; i++)
+			{
+				Entry entry = new Entry();
+				String id = readString(buffer);
+
+				entry.left = buffer.getFloat();
+				entry.top = buffer.getFloat();
+
+				int flags = buffer.get();
+
+				entry.enabled = (flags & FLAG_ENABLED) != 0;
+				entry.ensureRight = (flags & FLAG_ENSURE_RIGHT) != 0;
+				entry.ensureBottom = (flags & FLAG_ENSURE_BOTTOM) != 0;
+				entry.axis = readString(buffer);
+
+				for (int bound = 0; bound < entry.bounds.length; bound++)
+				{
+					entry.bounds[bound] = readString(buffer);
+				}
+
+				entries.put(id, entry);
+			}
+		}
+		catch (RuntimeException e)
+		{
+			throw new IOException("Corrupt layout file " + file);
+		}
+		finally
+		{
+			stream.close();
+		}
+
+		return entries;
+	}
+
+	protected static void writeString(DataOutputStream out, String value) throws IOException
+	{
+		byte[] bytes = value != null ? value.getBytes("UTF-8") : new byte[0];
+
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+
+	protected static String readString(ByteBuffer buffer) throws IOException
+	{
+		int length = buffer.getShort() & 0xffff;
+
+		if (length == 0)
+		{
+			return null;
+		}
+
+		byte[] bytes = new byte[length];
+
+		buffer.get(bytes);
+
+		return new String(bytes, "UTF-8");
+	}
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+/**
+ * An enhanced fork of the original TiDraggable module by Pedro Enrique,
+ * allows for simple creation of "draggable" views.
+ *
+ * Copyright (C) 2013 Seth Benjamin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * -- Original License --
+ *
+ * Copyright 2012 Pedro Enrique
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ti.draggable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+import org.appcelerator.kroll.KrollDict;
+import org.appcelerator.kroll.KrollProxy;
+import org.appcelerator.titanium.TiDimension;
+import org.appcelerator.titanium.view.TiCompositeLayout;
+
+import android.view.View;
+import android.view.ViewParent;
+
+public class ViewPositionBatch
+{
+	protected static class Entry
+	{
+		KrollProxy proxy;
+		View view;
+		float top;
+		float left;
+		Float bottom;
+		Float right;
+	}
+
+	protected ArrayList<Entry> entries = new ArrayList<Entry>();
+
+	public void add(KrollProxy proxy, View view, float top, float left, Float bottom, Float right)
+	{
+		Entry entry = new Entry();
+
+		entry.proxy = proxy;
+		entry.view = view;
+		entry.top = top;
+		entry.left = left;
+		entry.bottom = bottom;
+		entry.right = right;
+
+		entries.add(entry);
+	}
+
+	public boolean isEmpty()
+	{
+		return entries.isEmpty();
+	}
+
+	public void commit()
+	{
+		LinkedHashSet<ViewParent> parents = new LinkedHashSet<ViewParent>();
+
+		for (Entry entry : entries)
+		{
+			TiCompositeLayout.LayoutParams layout = (TiCompositeLayout.LayoutParams) entry.view.getLayoutParams();
+
+			// The params are updated in place, the layout request is issued
+			// once per parent below rather than once per view.
+			layout.optionLeft = new TiDimension(entry.left, TiDimension.TYPE_LEFT);
+			layout.optionTop = new TiDimension(entry.top, TiDimension.TYPE_TOP);
+
+			if (entry.right != null)
+			{
+				layout.optionRight = new TiDimension(entry.right, TiDimension.TYPE_RIGHT);
+			}
+
+			if (entry.bottom != null)
+			{
+				layout.optionBottom = new TiDimension(entry.bottom, TiDimension.TYPE_BOTTOM);
+			}
+
+			entry.view.setTranslationX(0);
+			entry.view.setTranslationY(0);
+
+			if (entry.view.getParent() != null)
+			{
+				parents.add(entry.view.getParent());
+			}
+		}
+
+		for (ViewParent parent : parents)
+		{
+			parent.requestLayout();
+		}
+
+		for (Entry entry : entries)
+		{
+			KrollDict properties = entry.proxy.getProperties();
+
+			properties.put("left", entry.left);
+			properties.put("top", entry.top);
+
+			if (entry.right != null)
+			{
+				properties.put("right", entry.right);
+			}
+
+			if (entry.bottom != null)
+			{
+				properties.put("bottom", entry.bottom);
+			}
+
+			entry.proxy.updateKrollObjectProperties();
+		}
+
+		entries.clear();
+	}
+}
\ No newline at end of file
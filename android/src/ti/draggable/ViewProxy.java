@@ -38,6 +38,7 @@ package ti.draggable;
 import org.appcelerator.kroll.KrollDict;
 import org.appcelerator.kroll.KrollProxy;
 import org.appcelerator.kroll.annotations.Kroll;
+import org.appcelerator.kroll.common.TiMessenger;
 import org.appcelerator.titanium.proxy.TiViewProxy;
 import org.appcelerator.titanium.view.TiUIView;
 
@@ -83,4 +84,30 @@ public class ViewProxy extends TiViewProxy
 		return (KrollProxy) this.getProperty("draggable");
 	}
 
+	@Kroll.getProperty @Kroll.method
+	public String getDrawerState()
+	{
+		DraggableImpl impl = (DraggableImpl) this.peekView();
+
+		return impl != null ? impl.listener.getDrawerState() : null;
+	}
+
+	@Kroll.setProperty @Kroll.method
+	public void setDrawerState(final String state)
+	{
+		TiMessenger.postOnMain(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				DraggableImpl impl = (DraggableImpl) peekView();
+
+				if (impl != null)
+				{
+					impl.listener.setDrawerState(state);
+				}
+			}
+		});
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+/**
+ * An enhanced fork of the original TiDraggable module by Pedro Enrique,
+ * allows for simple creation of "draggable" views.
+ *
+ * Copyright (C) 2013 Seth Benjamin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * -- Original License --
+ *
+ * Copyright 2012 Pedro Enrique
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ti.draggable;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class CollisionGridTest
+{
+	private static CollisionGrid.Body add(CollisionGrid grid, double left, double top, double size)
+	{
+		CollisionGrid.Body body = new CollisionGrid.Body();
+
+		grid.update(body, left, top, size, size);
+
+		return body;
+	}
+
+	@Test
+	public void slidesAlongAnObstacle()
+	{
+		CollisionGrid grid = new CollisionGrid();
+		CollisionGrid.Body body = add(grid, 0, 0, 50);
+
+		add(grid, 100, 0, 50);
+
+		double[] position = { 200, 30 };
+
+		grid.resolve(body, position);
+
+		assertEquals(50, position[0], 0);
+		assertEquals(30, position[1], 0);
+	}
+
+	@Test
+	public void doesNotTunnelThroughThinObstacles()
+	{
+		CollisionGrid grid = new CollisionGrid();
+		CollisionGrid.Body body = add(grid, 0, 0, 20);
+		CollisionGrid.Body wall = new CollisionGrid.Body();
+
+		grid.update(wall, 500, -100, 2, 400);
+
+		double[] position = { 5000, 0 };
+
+		grid.resolve(body, position);
+
+		assertEquals(480, position[0], 0);
+	}
+
+	@Test
+	public void removedBodiesNoLongerBlock()
+	{
+		CollisionGrid grid = new CollisionGrid();
+		CollisionGrid.Body body = add(grid, 0, 0, 50);
+		CollisionGrid.Body obstacle = add(grid, 100, 0, 50);
+
+		grid.remove(obstacle);
+
+		double[] position = { 200, 0 };
+
+		grid.resolve(body, position);
+
+		assertEquals(200, position[0], 0);
+	}
+
+	@Test
+	public void findsObstaclesAcrossManyCells()
+	{
+		CollisionGrid grid = new CollisionGrid();
+
+		// Enough bodies to grow the cell table several times.
+		for (int i = 0; i < 400; i++)
+		{
+			add(grid, (i % 20) * 120, (i / 20) * 120, 50);
+		}
+
+		CollisionGrid.Body body = add(grid, 0, 2400, 50);
+		double[] position = { 0, 0 };
+
+		grid.resolve(body, position);
+
+		assertEquals(2330, position[1], 0);
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * An enhanced fork of the original TiDraggable module by Pedro Enrique,
+ * allows for simple creation of "draggable" views.
+ *
+ * Copyright (C) 2013 Seth Benjamin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * -- Original License --
+ *
+ * Copyright 2012 Pedro Enrique
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ti.draggable;
+
+/**
+ * Measures the per-move cost of the engine with and without collisions, run
+ * with `ant benchmark` from this directory.
+ */
+public class DragBenchmark
+{
+	private static final int WARMUP = 200000;
+	private static final int MOVES = 2000000;
+
+	private static final DragEngine.Sink SINK = new DragEngine.Sink()
+	{
+		@Override
+		public void onDragStart(double left, double top)
+		{
+		}
+
+		@Override
+		public void onDragMove(double left, double top, double deltaLeft, double deltaTop)
+		{
+		}
+
+		@Override
+		public void onDragEnd(double left, double top, double distanceX, double distanceY, boolean cancelled)
+		{
+		}
+	};
+
+	public static void main(String[] args)
+	{
+		DragEngine engine = new DragEngine(SINK);
+
+		engine.setBounds(0, 2000, 0, 2000);
+
+		report("move", engine);
+
+		CollisionGrid grid = new CollisionGrid();
+		CollisionGrid.Body body = new CollisionGrid.Body();
+
+		for (int i = 0; i < 400; i++)
+		{
+			grid.update(new CollisionGrid.Body(), 60 + (i % 20) * 100, 60 + (i / 20) * 100, 30, 30);
+		}
+
+		grid.update(body, 0, 0, 30, 30);
+		engine.setCollision(grid, body);
+
+		report("move with 400 colliders", engine);
+	}
+
+	private static void report(String name, DragEngine engine)
+	{
+		run(engine, WARMUP);
+
+		long start = System.nanoTime();
+
+		run(engine, MOVES);
+
+		System.out.println(name + ": " + (System.nanoTime() - start) / MOVES + " ns per move");
+	}
+
+	private static void run(DragEngine engine, int moves)
+	{
+		engine.handle(DragEngine.ACTION_DOWN, 0, 0, 0, 0);
+
+		for (int i = 0; i < moves; i++)
+		{
+			engine.handle(DragEngine.ACTION_MOVE, (i * 7) % 2000, (i * 3) % 2000, 0, 0);
+		}
+
+		engine.handle(DragEngine.ACTION_UP, 0, 0, 0, 0);
+	}
+}
@@ -0,0 +1,200 @@
+/**
+ * An enhanced fork of the original TiDraggable module by Pedro Enrique,
+ * allows for simple creation of "draggable" views.
+ *
+ * Copyright (C) 2013 Seth Benjamin
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * -- Original License --
+ *
+ * Copyright 2012 Pedro Enrique
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ti.draggable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DragEngineTest
+{
+	static class RecordingSink implements DragEngine.Sink
+	{
+		int starts = 0;
+		int moves = 0;
+		int ends = 0;
+		boolean cancelled = false;
+		double left = Double.NaN;
+		double top = Double.NaN;
+
+		@Override
+		public void onDragStart(double left, double top)
+		{
+			this.starts++;
+			this.left = left;
+			this.top = top;
+		}
+
+		@Override
+		public void onDragMove(double left, double top, double deltaLeft, double deltaTop)
+		{
+			this.moves++;
+			this.left = left;
+			this.top = top;
+		}
+
+		@Override
+		public void onDragEnd(double left, double top, double distanceX, double distanceY, boolean cancelled)
+		{
+			this.ends++;
+			this.cancelled = cancelled;
+			this.left = left;
+			this.top = top;
+		}
+	}
+
+	private RecordingSink sink;
+	private DragEngine engine;
+
+	@Before
+	public void setUp()
+	{
+		sink = new RecordingSink();
+		engine = new DragEngine(sink);
+		engine.setThreshold(10);
+	}
+
+	@Test
+	public void downStartsFromTheViewOrigin()
+	{
+		engine.handle(DragEngine.ACTION_DOWN, 500, 500, 40, 60);
+
+		assertEquals(1, sink.starts);
+		assertEquals(40, sink.left, 0);
+		assertEquals(60, sink.top, 0);
+
+		engine.handle(DragEngine.ACTION_MOVE, 530, 520, 0, 0);
+
+		assertEquals(70, engine.getLeft(), 0);
+		assertEquals(80, engine.getTop(), 0);
+	}
+
+	@Test
+	public void movesWithinTheThresholdDoNotDrag()
+	{
+		engine.handle(DragEngine.ACTION_DOWN, 100, 100, 0, 0);
+
+		assertFalse(engine.handle(DragEngine.ACTION_MOVE, 105, 108, 0, 0));
+		assertEquals(0, sink.moves);
+
+		engine.handle(DragEngine.ACTION_UP, 105, 108, 0, 0);
+
+		assertEquals(0, sink.ends);
+	}
+
+	@Test
+	public void clampsToBoundsAndTracksDistance()
+	{
+		engine.setBounds(0, 50, Double.NaN, Double.NaN);
+		engine.handle(DragEngine.ACTION_DOWN, 100, 100, 20, 20);
+
+		assertTrue(engine.handle(DragEngine.ACTION_MOVE, 200, 130, 0, 0));
+		assertEquals(50, engine.getLeft(), 0);
+		assertEquals(50, engine.getTop(), 0);
+
+		engine.handle(DragEngine.ACTION_MOVE, 0, 130, 0, 0);
+
+		assertEquals(0, engine.getLeft(), 0);
+		assertEquals(80, engine.getDistanceX(), 0);
+		assertEquals(30, engine.getDistanceY(), 0);
+
+		engine.handle(DragEngine.ACTION_CANCEL, 0, 130, 0, 0);
+
+		assertEquals(1, sink.ends);
+		assertTrue(sink.cancelled);
+		assertFalse(engine.isDragging());
+	}
+
+	@Test
+	public void rejectsMovementAcrossTheAxis()
+	{
+		engine.setAxis(DragEngine.AXIS_X);
+		engine.handle(DragEngine.ACTION_DOWN, 100, 100, 0, 0);
+
+		assertFalse(engine.handle(DragEngine.ACTION_MOVE, 103, 130, 0, 0));
+		assertTrue(engine.isRejected());
+
+		// A rejected gesture stays with the parent even if it turns around.
+		assertFalse(engine.handle(DragEngine.ACTION_MOVE, 160, 130, 0, 0));
+	}
+
+	@Test
+	public void followsOnlyTheConfiguredAxis()
+	{
+		engine.setAxis(DragEngine.AXIS_Y);
+		engine.handle(DragEngine.ACTION_DOWN, 100, 100, 10, 10);
+
+		assertTrue(engine.handle(DragEngine.ACTION_MOVE, 105, 150, 0, 0));
+		assertEquals(10, engine.getLeft(), 0);
+		assertEquals(60, engine.getTop(), 0);
+	}
+
+	@Test
+	public void longPressOnlyStartsWhenActivated()
+	{
+		engine.setStartOn(DragEngine.START_ON_LONGPRESS);
+		engine.handle(DragEngine.ACTION_DOWN, 100, 100, 0, 0);
+
+		assertTrue(engine.activate());
+		assertTrue(engine.handle(DragEngine.ACTION_MOVE, 102, 101, 0, 0));
+		assertEquals(2, engine.getLeft(), 0);
+
+		engine.handle(DragEngine.ACTION_DOWN, 100, 100, 0, 0);
+		engine.handle(DragEngine.ACTION_MOVE, 140, 100, 0, 0);
+
+		assertFalse(engine.activate());
+	}
+
+	@Test
+	public void collisionsStopTheViewAtTheObstacle()
+	{
+		CollisionGrid grid = new CollisionGrid();
+		CollisionGrid.Body obstacle = new CollisionGrid.Body();
+		CollisionGrid.Body body = new CollisionGrid.Body();
+
+		grid.update(obstacle, 100, 0, 50, 50);
+		grid.update(body, 0, 0, 50, 50);
+
+		engine.setCollision(grid, body);
+		engine.handle(DragEngine.ACTION_DOWN, 25, 25, 0, 0);
+		engine.handle(DragEngine.ACTION_MOVE, 225, 25, 0, 0);
+
+		assertEquals(50, engine.getLeft(), 0);
+	}
+}